@@ -0,0 +1,85 @@
+package com.crowdin.api.model;
+
+import com.crowdin.client.sourcefiles.model.Directory;
+import com.crowdin.client.sourcefiles.model.File;
+import com.crowdin.client.sourcefiles.model.GeneralFileExportOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates synthetic Crowdin projects: a directory tree with the given fanout and depth
+ * and the given number of files in every leaf directory.
+ * Every model object gets its own strings, the same way they come deserialized from the API.
+ */
+public class ProjectFilesGenerator {
+
+    private static final Long PROJECT_ID = 10L;
+
+    private final Long branchId;
+    private final Map<Long, Directory> dirs = new HashMap<>();
+    private final List<File> files = new ArrayList<>();
+    private long nextId = 1;
+
+    private ProjectFilesGenerator(Long branchId) {
+        this.branchId = branchId;
+    }
+
+    public static ProjectFilesGenerator generate(Long branchId, int fanout, int depth, int filesPerDirectory) {
+        ProjectFilesGenerator generator = new ProjectFilesGenerator(branchId);
+        generator.generateLevel(null, fanout, depth, filesPerDirectory);
+        return generator;
+    }
+
+    public Map<Long, Directory> getDirs() {
+        return dirs;
+    }
+
+    public List<File> getFiles() {
+        return files;
+    }
+
+    private void generateLevel(Long parentId, int fanout, int depth, int filesPerDirectory) {
+        if (depth == 0) {
+            for (int i = 0; i < filesPerDirectory; i++) {
+                files.add(this.file(new StringBuilder("strings_").append(i).append(".xml").toString(), parentId));
+            }
+            return;
+        }
+        for (int i = 0; i < fanout; i++) {
+            Directory dir = this.directory(new StringBuilder("dir_").append(depth).append('_').append(i).toString(), parentId);
+            dirs.put(dir.getId(), dir);
+            this.generateLevel(dir.getId(), fanout, depth - 1, filesPerDirectory);
+        }
+    }
+
+    private Directory directory(String name, Long parentId) {
+        Directory dir = new Directory();
+        dir.setId(nextId++);
+        dir.setProjectId(PROJECT_ID);
+        dir.setBranchId(branchId);
+        dir.setDirectoryId(parentId);
+        dir.setName(name);
+        return dir;
+    }
+
+    private File file(String name, Long parentId) {
+        File file = new File();
+        file.setId(nextId++);
+        file.setProjectId(PROJECT_ID);
+        file.setBranchId(branchId);
+        file.setDirectoryId(parentId);
+        file.setName(name);
+        file.setType(new StringBuilder("an").append("droid").toString());
+        file.setRevisionId(1L);
+        GeneralFileExportOptions exportOptions = new GeneralFileExportOptions();
+        exportOptions.setExportPattern(new StringBuilder("/values-%android_code%/").append("%original_file_name%").toString());
+        file.setExportOptions(exportOptions);
+        List<String> excludedTargetLanguages = new ArrayList<>();
+        excludedTargetLanguages.add(new StringBuilder("d").append('e').toString());
+        file.setExcludedTargetLanguages(excludedTargetLanguages);
+        return file;
+    }
+}
@@ -0,0 +1,86 @@
+package com.crowdin.client;
+
+import com.crowdin.api.model.ProjectFilesGenerator;
+import com.crowdin.util.CrowdinFileUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.function.Supplier;
+
+/**
+ * Compares heap retained by the per-branch cache built as path maps of model objects and as {@link CrowdinFileTree}.
+ * The retained size is reported by the 'retainedBytes' secondary metric.
+ * The generated project has fanout^depth leaf directories with 'filesPerDirectory' files in each of them.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CrowdinFileTreeMemoryBenchmark {
+
+    private static final Long BRANCH_ID = 301L;
+
+    @Param({"10"})
+    public int fanout;
+
+    @Param({"3"})
+    public int depth;
+
+    @Param({"10", "50"})
+    public int filesPerDirectory;
+
+    private Object retained;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public void pathMaps(Footprint footprint) {
+        footprint.retainedBytes = this.measure(() -> {
+            ProjectFilesGenerator project = ProjectFilesGenerator.generate(BRANCH_ID, fanout, depth, filesPerDirectory);
+            return new Object[] {
+                CrowdinFileUtil.buildFilePaths(project.getFiles(), project.getDirs()),
+                CrowdinFileUtil.buildDirPaths(project.getDirs())
+            };
+        });
+    }
+
+    @Benchmark
+    public void fileTree(Footprint footprint) {
+        footprint.retainedBytes = this.measure(() -> {
+            ProjectFilesGenerator project = ProjectFilesGenerator.generate(BRANCH_ID, fanout, depth, filesPerDirectory);
+            return CrowdinFileTree.build(BRANCH_ID, "master", project.getFiles(), project.getDirs());
+        });
+    }
+
+    private long measure(Supplier<Object> build) {
+        long before = usedMemory();
+        retained = build.get();
+        long after = usedMemory();
+        retained = null;
+        return after - before;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,69 @@
+package com.crowdin.util;
+
+import com.crowdin.api.model.ProjectFilesGenerator;
+import com.crowdin.client.sourcefiles.model.Directory;
+import com.crowdin.client.sourcefiles.model.File;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how building file paths scales with directory depth and the number of files per directory.
+ * 'insertPrefixes' is the previous implementation, which walked all parents of every file and prepended their names.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class CrowdinFileUtilBenchmark {
+
+    @Param({"2"})
+    public int fanout;
+
+    @Param({"4", "8", "12"})
+    public int depth;
+
+    @Param({"10", "50"})
+    public int filesPerDirectory;
+
+    private List<File> files;
+    private Map<Long, Directory> dirs;
+
+    @Setup
+    public void setUp() {
+        ProjectFilesGenerator project = ProjectFilesGenerator.generate(301L, fanout, depth, filesPerDirectory);
+        files = project.getFiles();
+        dirs = project.getDirs();
+    }
+
+    @Benchmark
+    public Map<String, File> memoizedPrefixes() {
+        return CrowdinFileUtil.buildFilePaths(files, dirs);
+    }
+
+    @Benchmark
+    public Map<String, File> insertPrefixes() {
+        Map<String, File> filePaths = new HashMap<>();
+        for (File file : files) {
+            StringBuilder sb = new StringBuilder(file.getName());
+            Long parentDirId = file.getDirectoryId();
+            while (parentDirId != null) {
+                Directory parentDir = dirs.get(parentDirId);
+                sb.insert(0, parentDir.getName() + java.io.File.separator);
+                parentDirId = parentDir.getDirectoryId();
+            }
+            sb.insert(0, java.io.File.separator);
+            filePaths.put(sb.toString(), file);
+        }
+        return filePaths;
+    }
+}
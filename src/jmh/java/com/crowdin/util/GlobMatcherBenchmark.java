@@ -0,0 +1,179 @@
+package com.crowdin.util;
+
+import com.crowdin.api.model.ProjectFilesGenerator;
+import com.crowdin.client.sourcefiles.model.Directory;
+import com.crowdin.client.sourcefiles.model.File;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares source pattern matching with {@link GlobMatcher} against the previous implementation,
+ * which turned every pattern segment into a regular expression and called 'String.matches' for every visited entry.
+ * 'match*' benchmarks check every file path of a generated project, 'walk*' benchmarks walk its directory tree.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class GlobMatcherBenchmark {
+
+    @Param({"**/*.xml", "dir_6_0/**/dir_1_1/strings_1*.xml", "*/*/*/dir_3_2/*/*/strings_?.xml"})
+    public String pattern;
+
+    private List<String[]> paths;
+    private Node root;
+
+    @Setup
+    public void setUp() {
+        ProjectFilesGenerator project = ProjectFilesGenerator.generate(301L, 3, 6, 20);
+        Map<Long, Directory> dirs = project.getDirs();
+        paths = new ArrayList<>();
+        for (String path : CrowdinFileUtil.buildFilePaths(project.getFiles(), dirs).keySet()) {
+            paths.add(FileUtil.splitPath(FileUtil.noSepAtStart(path)));
+        }
+
+        root = new Node(null, true);
+        Map<Long, Node> nodes = new HashMap<>();
+        for (Directory dir : dirs.values()) {
+            nodes.put(dir.getId(), new Node(dir.getName(), true));
+        }
+        for (Directory dir : dirs.values()) {
+            this.parent(nodes, dir.getDirectoryId()).children.add(nodes.get(dir.getId()));
+        }
+        for (File file : project.getFiles()) {
+            this.parent(nodes, file.getDirectoryId()).children.add(new Node(file.getName(), false));
+        }
+    }
+
+    @Benchmark
+    public int matchCompiled() {
+        GlobMatcher matcher = GlobMatcher.compile(pattern);
+        int matched = 0;
+        for (String[] path : paths) {
+            if (matcher.matches(path)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int matchRegex() {
+        int matched = 0;
+        for (String[] path : paths) {
+            if (legacyMatches(pattern, path, 0)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public List<Node> walkCompiled() {
+        GlobMatcher matcher = GlobMatcher.compile(pattern);
+        List<Node> found = new ArrayList<>();
+        this.walk(matcher, root, matcher.initialState(), found);
+        return found;
+    }
+
+    @Benchmark
+    public List<Node> walkRegex() {
+        return legacyWalk(root, pattern);
+    }
+
+    private void walk(GlobMatcher matcher, Node dir, long state, List<Node> found) {
+        for (Node child : dir.children) {
+            if (child.directory) {
+                long next = matcher.enterDirectory(state, child.name);
+                if (next != 0) {
+                    this.walk(matcher, child, next, found);
+                }
+            } else if (matcher.acceptsFile(state, child.name)) {
+                found.add(child);
+            }
+        }
+    }
+
+    private static boolean legacyMatches(String source, String[] segments, int index) {
+        if (index >= segments.length) {
+            return false;
+        }
+        int sepIndex = source.indexOf("/");
+        boolean isDir = sepIndex != -1;
+        boolean isLast = index == segments.length - 1;
+        String searchable = (isDir) ? source.substring(0, sepIndex) : source;
+        if ("**".equals(searchable) && isDir) {
+            return (!isLast && legacyMatches(source, segments, index + 1))
+                || legacyMatches(source.substring(sepIndex + 1), segments, index);
+        }
+        boolean nameMatches = (searchable.contains("*"))
+            ? segments[index].matches(searchable.replace("*", ".*"))
+            : searchable.equals(segments[index]);
+        if (!nameMatches) {
+            return false;
+        }
+        return (isDir) ? !isLast && legacyMatches(source.substring(sepIndex + 1), segments, index + 1) : isLast;
+    }
+
+    private static List<Node> legacyWalk(Node root, String source) {
+        int sepIndex = source.indexOf("/");
+        List<Node> files = new ArrayList<>();
+        boolean isDir = sepIndex != -1;
+        String searchable = (isDir) ? source.substring(0, sepIndex) : source;
+        if ("**".equals(searchable) && isDir) {
+            for (Node child : root.children) {
+                if (child.directory) {
+                    files.addAll(legacyWalk(child, source));
+                }
+            }
+            files.addAll(legacyWalk(root, source.substring(sepIndex + 1)));
+        } else if (searchable.contains("*")) {
+            String searchableRegex = searchable.replace("*", ".*");
+            for (Node child : root.children) {
+                if (!child.directory && !isDir && child.name.matches(searchableRegex)) {
+                    files.add(child);
+                } else if (child.directory && isDir && child.name.matches(searchableRegex)) {
+                    files.addAll(legacyWalk(child, source.substring(sepIndex + 1)));
+                }
+            }
+        } else {
+            for (Node child : root.children) {
+                if (searchable.equals(child.name)) {
+                    if (child.directory && isDir) {
+                        files.addAll(legacyWalk(child, source.substring(sepIndex + 1)));
+                    } else if (!child.directory && !isDir) {
+                        files.add(child);
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private Node parent(Map<Long, Node> nodes, Long directoryId) {
+        return (directoryId != null) ? nodes.get(directoryId) : root;
+    }
+
+    public static final class Node {
+
+        private final String name;
+        private final boolean directory;
+        private final List<Node> children = new ArrayList<>();
+
+        private Node(String name, boolean directory) {
+            this.name = name;
+            this.directory = directory;
+        }
+    }
+}
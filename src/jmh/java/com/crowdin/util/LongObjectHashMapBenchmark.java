@@ -0,0 +1,81 @@
+package com.crowdin.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building and looking up id-keyed maps of the size of a large project's file list.
+ * Ids are sparse, the same way Crowdin assigns them across the whole instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class LongObjectHashMapBenchmark {
+
+    @Param({"100000"})
+    public int entries;
+
+    private long[] ids;
+    private Long[] boxedIds;
+    private Object value;
+    private Map<Long, Object> hashMap;
+    private LongObjectHashMap<Object> longObjectHashMap;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ids = new long[entries];
+        boxedIds = new Long[entries];
+        value = new Object();
+        for (int i = 0; i < entries; i++) {
+            ids[i] = 100_000L + random.nextInt(Integer.MAX_VALUE);
+            boxedIds[i] = ids[i];
+        }
+        hashMap = this.hashMapPut();
+        longObjectHashMap = this.longObjectHashMapPut();
+    }
+
+    @Benchmark
+    public Map<Long, Object> hashMapPut() {
+        Map<Long, Object> map = new HashMap<>();
+        for (Long id : boxedIds) {
+            map.put(id, value);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public LongObjectHashMap<Object> longObjectHashMapPut() {
+        LongObjectHashMap<Object> map = new LongObjectHashMap<>();
+        for (long id : ids) {
+            map.put(id, value);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public void hashMapGet(Blackhole blackhole) {
+        for (long id : ids) {
+            blackhole.consume(hashMap.get(id));
+        }
+    }
+
+    @Benchmark
+    public void longObjectHashMapGet(Blackhole blackhole) {
+        for (long id : ids) {
+            blackhole.consume(longObjectHashMap.get(id));
+        }
+    }
+}
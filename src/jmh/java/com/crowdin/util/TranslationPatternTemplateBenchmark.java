@@ -0,0 +1,119 @@
+package com.crowdin.util;
+
+import com.crowdin.client.languages.model.Language;
+import org.apache.commons.io.FilenameUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds translation paths for every source and language pair.
+ * 'replacePasses' is the previous implementation of PlaceholderUtil, which ran a replace pass over the pattern for every placeholder.
+ * 'templateWithPlaceholderTable' includes building the table of language values, the way the project cache does it once per reload.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TranslationPatternTemplateBenchmark {
+
+    @Param({"200", "2000"})
+    public int sources;
+
+    @Param({"90"})
+    public int languages;
+
+    @Param({"/values-%android_code%/%original_file_name%", "/%original_path%/%file_name%.%locale_with_underscore%.%file_extension%"})
+    public String pattern;
+
+    private List<String> sourcePaths;
+    private List<Language> projLanguages;
+    private LanguageMapping languageMapping;
+
+    @Setup
+    public void setUp() {
+        sourcePaths = new ArrayList<>(sources);
+        for (int i = 0; i < sources; i++) {
+            sourcePaths.add(new StringBuilder("/module_").append(i % 20).append("/res/strings_").append(i).append(".xml").toString());
+        }
+        projLanguages = new ArrayList<>(languages);
+        for (int i = 0; i < languages; i++) {
+            Language lang = new Language();
+            lang.setId("l" + i);
+            lang.setName("Language " + i);
+            lang.setLocale("l" + i + "-R" + i);
+            lang.setTwoLettersCode("l" + i);
+            lang.setThreeLettersCode("la" + i);
+            lang.setAndroidCode("l" + i + "-rR" + i);
+            lang.setOsxCode("l" + i + ".lproj");
+            lang.setOsxLocale("l" + i);
+            projLanguages.add(lang);
+        }
+        languageMapping = LanguageMapping.fromServerLanguageMapping(new HashMap<>());
+    }
+
+    @Benchmark
+    public void template(Blackhole blackhole) {
+        TranslationPatternTemplate template = TranslationPatternTemplate.parse(pattern);
+        for (String sourcePath : sourcePaths) {
+            TranslationPatternTemplate sourceTemplate = template.withFile(sourcePath);
+            for (Language lang : projLanguages) {
+                blackhole.consume(sourceTemplate.render(lang, languageMapping));
+            }
+        }
+    }
+
+    @Benchmark
+    public void templateWithPlaceholderTable(Blackhole blackhole) {
+        LanguagePlaceholderTable table = LanguagePlaceholderTable.build(projLanguages, languageMapping);
+        TranslationPatternTemplate template = TranslationPatternTemplate.parse(pattern);
+        for (String sourcePath : sourcePaths) {
+            TranslationPatternTemplate sourceTemplate = template.withFile(sourcePath);
+            for (int i = 0; i < table.size(); i++) {
+                blackhole.consume(sourceTemplate.render(table, i));
+            }
+        }
+    }
+
+    @Benchmark
+    public void replacePasses(Blackhole blackhole) {
+        for (String sourcePath : sourcePaths) {
+            String basePattern = replaceFilePlaceholders(pattern, sourcePath);
+            for (Language lang : projLanguages) {
+                blackhole.consume(replaceLanguagePlaceholders(basePattern, lang, languageMapping));
+            }
+        }
+    }
+
+    private static String replaceLanguagePlaceholders(String pattern, Language lang, LanguageMapping langMapping) {
+        return pattern
+            .replaceAll("%language_id%", langMapping.getValueOrDefault(lang.getId(), "language_id", lang.getId()))
+            .replace("%language%", langMapping.getValueOrDefault(lang.getId(), "language",
+                langMapping.getValueOrDefault(lang.getId(), "name", lang.getName())))
+            .replace("%locale%", langMapping.getValueOrDefault(lang.getId(), "locale", lang.getLocale()))
+            .replace("%locale_with_underscore%", langMapping.getValueOrDefault(lang.getId(), "locale_with_underscore", lang.getLocale().replace("-", "_")))
+            .replace("%two_letters_code%", langMapping.getValueOrDefault(lang.getId(), "two_letters_code", lang.getTwoLettersCode()))
+            .replace("%three_letters_code%", langMapping.getValueOrDefault(lang.getId(), "three_letters_code", lang.getThreeLettersCode()))
+            .replace("%android_code%", langMapping.getValueOrDefault(lang.getId(), "android_code", lang.getAndroidCode()))
+            .replace("%osx_locale%", langMapping.getValueOrDefault(lang.getId(), "osx_locale", lang.getOsxLocale()))
+            .replace("%osx_code%", langMapping.getValueOrDefault(lang.getId(), "osx_code", lang.getOsxCode()));
+    }
+
+    private static String replaceFilePlaceholders(String toFormat, String sourcePath) {
+        return toFormat
+            .replace("%original_file_name%", FilenameUtils.getName(sourcePath))
+            .replace("%file_name%", FilenameUtils.getBaseName(sourcePath))
+            .replace("%file_extension%", FilenameUtils.getExtension(sourcePath))
+            .replace("%original_path%", FilenameUtils.getPathNoEndSeparator(sourcePath));
+    }
+}
@@ -30,6 +30,7 @@ public final class Constants {
     public static final String PROPERTY_FILES_LABELS_PATTERN = "files.%slabels";
     public static final String PROPERTY_AUTO_UPLOAD = "auto-upload";
     public static final String PROPERTY_DISABLE_BRANCHES = "disable-branches";
+    public static final String PROPERTY_UPLOAD_BRANCHES = "upload-branches";
     public static final String PROPERTY_PRESERVE_HIERARCHY = "preserve-hierarchy";
     public static final String PROPERTY_DEBUG = "debug";
 
@@ -8,6 +8,7 @@ import com.crowdin.client.sourcefiles.model.Branch;
 import com.crowdin.logic.BranchLogic;
 import com.crowdin.logic.ContextLogic;
 import com.crowdin.logic.CrowdinSettings;
+import com.crowdin.logic.SourceFilesIndex;
 import com.crowdin.util.FileUtil;
 import com.crowdin.util.NotificationUtil;
 import com.crowdin.util.UIUtil;
@@ -21,7 +22,6 @@ import com.intellij.openapi.vfs.VirtualFile;
 import lombok.NonNull;
 
 import java.net.URL;
-import java.util.Objects;
 
 import static com.crowdin.Constants.MESSAGES_BUNDLE;
 
@@ -65,7 +65,7 @@ public class DownloadSourceFromContextAction extends BackgroundAction {
 
             Branch branch = branchLogic.getBranch(crowdinProjectCache, false);
 
-            Long sourceId = ContextLogic.findSourceIdFromSourceFile(properties, crowdinProjectCache.getFileInfos(branch), file, root);
+            Long sourceId = ContextLogic.findSourceIdFromSourceFile(properties, crowdinProjectCache.getFileTree(branch), file, root);
             URL url = crowdin.downloadFile(sourceId);
             FileUtil.downloadFile(this, file, url);
             NotificationUtil.showInformationMessage(project, MESSAGES_BUNDLE.getString("messages.success.download_source"));
@@ -87,10 +87,11 @@ public class DownloadSourceFromContextAction extends BackgroundAction {
         boolean isSourceFile = false;
         try {
             CrowdinProperties properties = CrowdinPropertiesLoader.load(project);
+            VirtualFile root = FileUtil.getProjectBaseDir(project);
+            SourceFilesIndex sourceFilesIndex = ServiceManager.getService(project, SourceFilesIndex.class);
             isSourceFile = properties.getFiles()
                 .stream()
-                .flatMap(fb -> FileUtil.getSourceFilesRec(FileUtil.getProjectBaseDir(project), fb.getSource()).stream())
-                .anyMatch(f -> Objects.equals(file, f));
+                .anyMatch(fb -> sourceFilesIndex.isSourceFile(root, fb.getSource(), file));
         } catch (Exception exception) {
 //            do nothing
         } finally {
@@ -9,8 +9,10 @@ import com.crowdin.client.sourcefiles.model.Branch;
 import com.crowdin.client.sourcefiles.model.FileInfo;
 import com.crowdin.logic.BranchLogic;
 import com.crowdin.logic.CrowdinSettings;
+import com.crowdin.logic.SourceFilesIndex;
 import com.crowdin.util.FileUtil;
 import com.crowdin.util.NotificationUtil;
+import com.crowdin.util.PathSuffixIndex;
 import com.crowdin.util.UIUtil;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.components.ServiceManager;
@@ -27,7 +29,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -78,13 +79,18 @@ public class DownloadSourcesAction extends BackgroundAction {
             Map<String, FileInfo> filePaths = crowdinProjectCache.getFileInfos(branch);
 
             AtomicBoolean isAnyFileDownloaded = new AtomicBoolean(false);
+            Map<FileBean, List<VirtualFile>> localSources = (properties.isPreserveHierarchy())
+                ? Collections.emptyMap()
+                : ServiceManager.getService(project, SourceFilesIndex.class).getSourceFiles(root, properties.getFiles());
 
             for (FileBean fileBean : properties.getFiles()) {
                 Predicate<String> sourcePredicate = FileUtil.filePathRegex(fileBean.getSource(), properties.isPreserveHierarchy());
-                Map<String, VirtualFile> localSourceFiles = (properties.isPreserveHierarchy())
-                    ? Collections.emptyMap()
-                    : FileUtil.getSourceFilesRec(root, fileBean.getSource()).stream()
-                    .collect(Collectors.toMap(VirtualFile::getPath, Function.identity()));
+                PathSuffixIndex<VirtualFile> localSourceFiles = new PathSuffixIndex<>();
+                if (!properties.isPreserveHierarchy()) {
+                    for (VirtualFile localSourceFile : localSources.get(fileBean)) {
+                        localSourceFiles.add(localSourceFile.getPath(), localSourceFile);
+                    }
+                }
                 List<String> foundSources = filePaths.keySet().stream()
                     .map(FileUtil::unixPath)
                     .filter(sourcePredicate)
@@ -102,9 +108,7 @@ public class DownloadSourcesAction extends BackgroundAction {
                         this.downloadFile(crowdin, fileId, root, foundSourceFilePath);
                         isAnyFileDownloaded.set(true);
                     } else {
-                        List<String> fittingSources = localSourceFiles.keySet().stream()
-                            .filter(localSourceFilePath -> localSourceFilePath.endsWith(foundSourceFilePath))
-                            .collect(Collectors.toList());
+                        List<VirtualFile> fittingSources = localSourceFiles.findEndingWith(foundSourceFilePath, 2);
                         if (fittingSources.isEmpty()) {
                             NotificationUtil.showWarningMessage(project, String.format(MESSAGES_BUNDLE.getString("errors.file_no_representative"), foundSourceFilePath));
                             continue;
@@ -113,8 +117,7 @@ public class DownloadSourcesAction extends BackgroundAction {
                             continue;
                         }
                         Long fileId = filePaths.get(foundSourceFilePath).getId();
-                        VirtualFile file = localSourceFiles.get(fittingSources.get(0));
-                        this.downloadFile(crowdin, fileId, file);
+                        this.downloadFile(crowdin, fileId, fittingSources.get(0));
                         isAnyFileDownloaded.set(true);
                     }
                     NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.download_sources.file_downloaded"), foundSourceFilePath));
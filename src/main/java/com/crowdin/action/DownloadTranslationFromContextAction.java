@@ -10,6 +10,8 @@ import com.crowdin.client.sourcefiles.model.Branch;
 import com.crowdin.logic.BranchLogic;
 import com.crowdin.logic.ContextLogic;
 import com.crowdin.logic.CrowdinSettings;
+import com.crowdin.logic.SourceManifest;
+import com.crowdin.logic.TranslationManifest;
 import com.crowdin.util.ActionUtils;
 import com.crowdin.util.FileUtil;
 import com.crowdin.util.NotificationUtil;
@@ -73,13 +75,17 @@ public class DownloadTranslationFromContextAction extends BackgroundAction {
 
             Branch branch = branchLogic.getBranch(crowdinProjectCache, false);
 
-            Pair<VirtualFile, Language> source = ContextLogic.findSourceFileFromTranslationFile(file, properties, root, crowdinProjectCache)
+            Pair<VirtualFile, Language> source = ContextLogic.findSourceFileFromTranslationFile(project, file, properties, root, crowdinProjectCache)
                 .orElseThrow(() -> new RuntimeException(MESSAGES_BUNDLE.getString("errors.file_no_representative_context")));
 
-            Long sourceId = ContextLogic.findSourceIdFromSourceFile(properties, crowdinProjectCache.getFileInfos(branch), source.getLeft(), root);
+            Long sourceId = ContextLogic.findSourceIdFromSourceFile(properties, crowdinProjectCache.getFileTree(branch), source.getLeft(), root);
 
             URL url = crowdin.downloadFileTranslation(sourceId, RequestBuilder.buildProjectFileTranslation(source.getRight().getId()));
             FileUtil.downloadFile(this, file, url);
+            ServiceManager.getService(project, TranslationManifest.class).record(
+                SourceManifest.branchKey(crowdin.getProjectId(), (branch != null) ? branch.getId() : null),
+                TranslationManifest.relativePath(root, new java.io.File(file.getPath())),
+                source.getRight().getId(), SourceManifest.fingerprint(file.contentsToByteArray()));
         } catch (ProcessCanceledException e) {
             throw e;
         } catch (Exception e) {
@@ -114,7 +120,7 @@ public class DownloadTranslationFromContextAction extends BackgroundAction {
             CrowdinProjectCacheProvider.CrowdinProjectCache crowdinProjectCache =
                 CrowdinProjectCacheProvider.getInstance(crowdin, branchName, false);
 
-            isTranslationFile = ContextLogic.findSourceFileFromTranslationFile(file, properties, root, crowdinProjectCache).isPresent();
+            isTranslationFile = ContextLogic.findSourceFileFromTranslationFile(project, file, properties, root, crowdinProjectCache).isPresent();
         } catch (Exception exception) {
 //            do nothing
         } finally {
@@ -0,0 +1,21 @@
+package com.crowdin.action;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+
+import static com.crowdin.Constants.MESSAGES_BUNDLE;
+
+/**
+ * Uploads all matched sources, including the ones that are unchanged since the last upload
+ */
+public class ForceUploadAction extends UploadAction {
+
+    @Override
+    protected boolean isForce() {
+        return true;
+    }
+
+    @Override
+    protected String loadingText(AnActionEvent e) {
+        return MESSAGES_BUNDLE.getString("labels.loading_text.force_upload_sources");
+    }
+}
@@ -0,0 +1,75 @@
+package com.crowdin.action;
+
+import com.crowdin.client.*;
+import com.crowdin.client.sourcefiles.model.Branch;
+import com.crowdin.logic.BranchLogic;
+import com.crowdin.logic.SourceFilesIndex;
+import com.crowdin.logic.SourceLogic;
+import com.crowdin.logic.UploadPlan;
+import com.crowdin.util.FileUtil;
+import com.crowdin.util.NotificationUtil;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.apache.commons.lang.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.crowdin.Constants.MESSAGES_BUNDLE;
+
+/**
+ * Shows what 'Upload Sources' would do, without any changes in Crowdin
+ */
+public class PreviewUploadAction extends BackgroundAction {
+
+    @Override
+    public void performInBackground(@NotNull AnActionEvent anActionEvent, ProgressIndicator indicator) {
+        Project project = anActionEvent.getProject();
+        try {
+            VirtualFile root = FileUtil.getProjectBaseDir(project);
+
+            CrowdinProperties properties = CrowdinPropertiesLoader.load(project);
+            Crowdin crowdin = new Crowdin(project, properties.getProjectId(), properties.getApiToken(), properties.getBaseUrl());
+
+            NotificationUtil.setLogDebugLevel(properties.isDebug());
+            NotificationUtil.logDebugMessage(project, MESSAGES_BUNDLE.getString("messages.debug.started_action"));
+
+            BranchLogic branchLogic = new BranchLogic(crowdin, project, properties);
+            String branchName = branchLogic.acquireBranchName(true);
+
+            CrowdinProjectCacheProvider.CrowdinProjectCache crowdinProjectCache =
+                CrowdinProjectCacheProvider.getInstance(crowdin, branchName, false);
+            indicator.checkCanceled();
+
+            Branch branch = crowdinProjectCache.getBranches().get(branchName);
+            boolean newBranch = branch == null && StringUtils.isNotEmpty(branchName);
+//            the branch to be created is empty, so all files are planned to be added
+            CrowdinFileTree fileTree = (newBranch) ? CrowdinFileTree.empty(null, branchName) : crowdinProjectCache.getFileTree(branch);
+
+            Map<FileBean, List<VirtualFile>> sources = ServiceManager.getService(project, SourceFilesIndex.class).getSourceFiles(root, properties.getFiles());
+            indicator.checkCanceled();
+            UploadPlan plan = SourceLogic.planSources(project, root, crowdin, crowdinProjectCache, branch, fileTree, properties.isPreserveHierarchy(), sources, false);
+
+            String description = SourceLogic.describePlan(plan);
+            if (newBranch) {
+                description += String.format(MESSAGES_BUNDLE.getString("messages.upload_plan.new_branch"), branchName);
+            }
+            NotificationUtil.showInformationMessage(project, description);
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            NotificationUtil.logErrorMessage(project, e);
+            NotificationUtil.showErrorMessage(project, e.getMessage());
+        }
+    }
+
+    @Override
+    protected String loadingText(AnActionEvent e) {
+        return MESSAGES_BUNDLE.getString("labels.loading_text.preview_upload_sources");
+    }
+}
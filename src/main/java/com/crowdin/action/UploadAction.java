@@ -4,6 +4,7 @@ import com.crowdin.client.*;
 import com.crowdin.client.sourcefiles.model.Branch;
 import com.crowdin.logic.BranchLogic;
 import com.crowdin.logic.CrowdinSettings;
+import com.crowdin.logic.SourceFilesIndex;
 import com.crowdin.logic.SourceLogic;
 import com.crowdin.util.*;
 import com.intellij.openapi.actionSystem.AnActionEvent;
@@ -16,7 +17,6 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.crowdin.Constants.MESSAGES_BUNDLE;
@@ -61,9 +61,8 @@ public class UploadAction extends BackgroundAction {
             Branch branch = branchLogic.getBranch(crowdinProjectCache, true);
             indicator.checkCanceled();
 
-            Map<FileBean, List<VirtualFile>> sources = properties.getFiles().stream()
-                .collect(Collectors.toMap(Function.identity(), fileBean -> FileUtil.getSourceFilesRec(root, fileBean.getSource())));
-            SourceLogic.processSources(project, root, crowdin, crowdinProjectCache, branch, properties.isPreserveHierarchy(), sources);
+            Map<FileBean, List<VirtualFile>> sources = ServiceManager.getService(project, SourceFilesIndex.class).getSourceFiles(root, properties.getFiles());
+            SourceLogic.processSources(project, root, crowdin, crowdinProjectCache, branch, properties.isPreserveHierarchy(), sources, this.isForce(), true);
             CrowdinProjectCacheProvider.outdateBranch(branchName);
         } catch (ProcessCanceledException e) {
             throw e;
@@ -73,6 +72,13 @@ public class UploadAction extends BackgroundAction {
         }
     }
 
+    /**
+     * @return true if sources should be uploaded even if they are unchanged since the last upload
+     */
+    protected boolean isForce() {
+        return false;
+    }
+
     @Override
     protected String loadingText(AnActionEvent e) {
         return MESSAGES_BUNDLE.getString("labels.loading_text.upload_sources");
@@ -4,6 +4,7 @@ import com.crowdin.client.*;
 import com.crowdin.client.sourcefiles.model.Branch;
 import com.crowdin.logic.BranchLogic;
 import com.crowdin.logic.CrowdinSettings;
+import com.crowdin.logic.SourceFilesIndex;
 import com.crowdin.logic.SourceLogic;
 import com.crowdin.util.*;
 import com.intellij.openapi.actionSystem.AnActionEvent;
@@ -17,7 +18,6 @@ import com.intellij.openapi.vfs.VirtualFile;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static com.crowdin.Constants.MESSAGES_BUNDLE;
@@ -56,16 +56,17 @@ public class UploadFromContextAction extends BackgroundAction {
             Branch branch = branchLogic.getBranch(crowdinProjectCache, true);
             indicator.checkCanceled();
 
+            SourceFilesIndex sourceFilesIndex = ServiceManager.getService(project, SourceFilesIndex.class);
             FileBean foundFileBean = properties.getFiles()
                 .stream()
-                .filter(fb -> FileUtil.getSourceFilesRec(root, fb.getSource()).contains(file))
+                .filter(fb -> sourceFilesIndex.isSourceFile(root, fb.getSource(), file))
                 .findAny()
                 .orElseThrow(() -> new RuntimeException("Unexpected error: couldn't find suitable source pattern"));
 
             indicator.checkCanceled();
 
             Map<FileBean, List<VirtualFile>> source = Collections.singletonMap(foundFileBean, Collections.singletonList(file));
-            SourceLogic.processSources(project, root, crowdin, crowdinProjectCache, branch, properties.isPreserveHierarchy(), source);
+            SourceLogic.processSources(project, root, crowdin, crowdinProjectCache, branch, properties.isPreserveHierarchy(), source, true, false);
 
             CrowdinProjectCacheProvider.outdateBranch(branchName);
         } catch (ProcessCanceledException e) {
@@ -84,10 +85,11 @@ public class UploadFromContextAction extends BackgroundAction {
         try {
             CrowdinProperties properties;
             properties = CrowdinPropertiesLoader.load(project);
+            VirtualFile root = FileUtil.getProjectBaseDir(project);
+            SourceFilesIndex sourceFilesIndex = ServiceManager.getService(project, SourceFilesIndex.class);
             isSourceFile = properties.getFiles()
                 .stream()
-                .flatMap(fb -> FileUtil.getSourceFilesRec(FileUtil.getProjectBaseDir(project), fb.getSource()).stream())
-                .anyMatch(f -> Objects.equals(file, f));
+                .anyMatch(fb -> sourceFilesIndex.isSourceFile(root, fb.getSource(), file));
         } catch (Exception exception) {
 //            do nothing
         } finally {
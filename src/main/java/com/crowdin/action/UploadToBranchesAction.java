@@ -0,0 +1,82 @@
+package com.crowdin.action;
+
+import com.crowdin.client.*;
+import com.crowdin.client.sourcefiles.model.Branch;
+import com.crowdin.logic.BranchLogic;
+import com.crowdin.logic.CrowdinSettings;
+import com.crowdin.logic.SourceFilesIndex;
+import com.crowdin.logic.SourceLogic;
+import com.crowdin.util.*;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.crowdin.Constants.MESSAGES_BUNDLE;
+import static com.crowdin.Constants.PROPERTY_UPLOAD_BRANCHES;
+
+/**
+ * Uploads sources to all Crowdin branches of the 'upload-branches' property at once, instead of the branch of the current git branch
+ */
+public class UploadToBranchesAction extends BackgroundAction {
+    @Override
+    public void performInBackground(@NotNull final AnActionEvent anActionEvent, ProgressIndicator indicator) {
+        Project project = anActionEvent.getProject();
+        try {
+            CrowdinSettings crowdinSettings = ServiceManager.getService(project, CrowdinSettings.class);
+
+            CrowdinProperties properties = CrowdinPropertiesLoader.load(project);
+            if (properties.getUploadBranches() == null) {
+                NotificationUtil.showErrorMessage(project, String.format(MESSAGES_BUNDLE.getString("errors.upload_branches_not_configured"), PROPERTY_UPLOAD_BRANCHES));
+                return;
+            }
+
+            boolean confirmation = UIUtil.сonfirmDialog(project, crowdinSettings,
+                String.format(MESSAGES_BUNDLE.getString("messages.confirm.upload_sources_to_branches"), String.join(", ", properties.getUploadBranches())), "Upload");
+            if (!confirmation) {
+                return;
+            }
+            indicator.checkCanceled();
+
+            VirtualFile root = FileUtil.getProjectBaseDir(project);
+            Crowdin crowdin = new Crowdin(project, properties.getProjectId(), properties.getApiToken(), properties.getBaseUrl());
+
+            NotificationUtil.setLogDebugLevel(properties.isDebug());
+            NotificationUtil.logDebugMessage(project, MESSAGES_BUNDLE.getString("messages.debug.started_action"));
+
+            BranchLogic branchLogic = new BranchLogic(crowdin, project, properties);
+            CrowdinProjectCacheProvider.CrowdinProjectCache crowdinProjectCache = null;
+            Map<Branch, CrowdinFileTree> branches = new LinkedHashMap<>();
+            for (String branchName : properties.getUploadBranches()) {
+                crowdinProjectCache = CrowdinProjectCacheProvider.getInstance(crowdin, branchName, branches.isEmpty());
+                indicator.checkCanceled();
+                Branch branch = branchLogic.getBranch(crowdinProjectCache, branchName, true);
+                branches.put(branch, crowdinProjectCache.getFileTree(branch));
+                indicator.checkCanceled();
+            }
+
+            Map<FileBean, List<VirtualFile>> sources = ServiceManager.getService(project, SourceFilesIndex.class).getSourceFiles(root, properties.getFiles());
+            SourceLogic.processSources(project, root, crowdin, crowdinProjectCache, branches, properties.isPreserveHierarchy(), sources, false, true);
+            for (String branchName : properties.getUploadBranches()) {
+                CrowdinProjectCacheProvider.outdateBranch(branchName);
+            }
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            NotificationUtil.logErrorMessage(project, e);
+            NotificationUtil.showErrorMessage(project, e.getMessage());
+        }
+    }
+
+    @Override
+    protected String loadingText(AnActionEvent e) {
+        return MESSAGES_BUNDLE.getString("labels.loading_text.upload_sources_to_branches");
+    }
+}
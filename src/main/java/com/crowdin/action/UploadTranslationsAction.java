@@ -7,27 +7,45 @@ import com.crowdin.client.sourcefiles.model.FileInfo;
 import com.crowdin.client.translations.model.UploadTranslationsRequest;
 import com.crowdin.logic.BranchLogic;
 import com.crowdin.logic.CrowdinSettings;
+import com.crowdin.logic.OperationJournal;
+import com.crowdin.logic.SourceFilesIndex;
+import com.crowdin.logic.SourceManifest;
+import com.crowdin.logic.StorageCache;
+import com.crowdin.logic.TranslationManifest;
+import com.crowdin.logic.UploadSummary;
 import com.crowdin.util.*;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.crowdin.Constants.MESSAGES_BUNDLE;
 
 public class UploadTranslationsAction extends BackgroundAction {
 
+    /**
+     * Upper bound of concurrent translation uploads, shared by all projects
+     */
+    private static final int UPLOAD_THREADS = 8;
+    private static final ExecutorService UPLOAD_EXECUTOR =
+        AppExecutorUtil.createBoundedApplicationPoolExecutor("Crowdin Translation Upload", UPLOAD_THREADS);
+
     @Override
     public void performInBackground(@NotNull AnActionEvent e, ProgressIndicator indicator) {
         Project project = e.getProject();
@@ -63,21 +81,25 @@ public class UploadTranslationsAction extends BackgroundAction {
 
             Branch branch = branchLogic.getBranch(crowdinProjectCache, false);
 
-            Map<String, FileInfo> filePaths = crowdinProjectCache.getFileInfos(branch);
+            CrowdinFileTree fileTree = crowdinProjectCache.getFileTree(branch);
 
-            NotificationUtil.logDebugMessage(project, "Project files: " + filePaths.keySet());
+            NotificationUtil.logDebugMessage(project, "Project files: " + fileTree.asFileMap().keySet());
 
-            AtomicInteger uploadedFilesCounter = new AtomicInteger(0);
+            StorageCache storageCache = new StorageCache(crowdin);
+            TranslationManifest manifest = ServiceManager.getService(project, TranslationManifest.class);
+            String manifestKey = SourceManifest.branchKey(crowdin.getProjectId(), (branch != null) ? branch.getId() : null);
+            List<TranslationUpload> translationUploads = new ArrayList<>();
 
+            Map<FileBean, List<VirtualFile>> sources = ServiceManager.getService(project, SourceFilesIndex.class).getSourceFiles(root, properties.getFiles());
             for (FileBean fileBean : properties.getFiles()) {
-                for (VirtualFile source : FileUtil.getSourceFilesRec(root, fileBean.getSource())) {
+                for (VirtualFile source : sources.get(fileBean)) {
                     VirtualFile pathToPattern = FileUtil.getBaseDir(source, fileBean.getSource());
                     String sourceRelativePath = properties.isPreserveHierarchy() ? StringUtils.removeStart(source.getPath(), root.getPath()) : FileUtil.sepAtStart(source.getName());
 
                     Map<Language, String> translationPaths =
-                        PlaceholderUtil.buildTranslationPatterns(sourceRelativePath, fileBean.getTranslation(), crowdinProjectCache.getProjectLanguages(), crowdinProjectCache.getLanguageMapping());
+                        PlaceholderUtil.buildTranslationPatterns(sourceRelativePath, fileBean.getTranslation(), crowdinProjectCache.getLanguagePlaceholders());
 
-                    FileInfo crowdinSource = filePaths.get(FileUtil.normalizePath(sourceRelativePath));
+                    FileInfo crowdinSource = fileTree.getFile(CrowdinPath.of(sourceRelativePath));
                     if (crowdinSource == null) {
                         NotificationUtil.showWarningMessage(project, String.format(MESSAGES_BUNDLE.getString("errors.missing_source"), FileUtil.normalizePath((branchName != null ? branchName + "/" : "") + sourceRelativePath)));
                         return;
@@ -88,26 +110,24 @@ public class UploadTranslationsAction extends BackgroundAction {
                             NotificationUtil.showWarningMessage(project, String.format(MESSAGES_BUNDLE.getString("errors.missing_translation"), FileUtil.noSepAtStart(StringUtils.removeStart(translationFile.getPath(), root.getPath()))));
                             continue;
                         }
-                        Long storageId;
-                        try (InputStream translationFileStrem = new FileInputStream(translationFile)) {
-                            storageId = crowdin.addStorage(translationFile.getName(), translationFileStrem);
-                        } catch (IOException exception) {
-                            throw new RuntimeException("Unhandled exception with File '" + translationFile + "'", exception);
-                        }
-                        UploadTranslationsRequest request = RequestBuilder.uploadTranslation(crowdinSource.getId(), storageId);
-                        try {
-                            crowdin.uploadTranslation(translationPath.getKey().getId(), request);
-                            uploadedFilesCounter.incrementAndGet();
-                        } catch (Exception exception) {
-                            NotificationUtil.logErrorMessage(project, exception);
-                            NotificationUtil.showErrorMessage(project, "Couldn't upload translation file '" + translationFile + "': " + exception.getMessage());
-                        }
+                        translationUploads.add(new TranslationUpload(
+                            crowdinSource.getId(), translationPath.getKey().getId(), translationFile, TranslationManifest.relativePath(root, translationFile)));
                     }
                 }
             }
-            if (uploadedFilesCounter.get() > 0) {
-                NotificationUtil.showInformationMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.success.upload_translations"), uploadedFilesCounter.get()));
-            } else {
+
+            UploadSummary summary = this.uploadTranslations(project, crowdin, storageCache, manifest, manifestKey, translationUploads, indicator);
+            indicator.checkCanceled();
+            storageCache.logStats(project);
+            if (summary.getFailed() > 0) {
+                NotificationUtil.showErrorMessage(project, String.format(MESSAGES_BUNDLE.getString("errors.upload_translations"),
+                    summary.getFailed(), translationUploads.size(), summary.formatFailures()));
+            }
+            if (summary.getUpdated() > 0) {
+                NotificationUtil.showInformationMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.success.upload_translations"), summary.getUpdated(), summary.getSkipped()));
+            } else if (summary.getSkipped() > 0) {
+                NotificationUtil.showInformationMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.upload_translations_unchanged"), summary.getSkipped()));
+            } else if (summary.getFailed() == 0) {
                 NotificationUtil.showWarningMessage(project, MESSAGES_BUNDLE.getString("errors.uploaded_zero_translations"));
             }
         } catch (ProcessCanceledException exception) {
@@ -118,6 +138,98 @@ public class UploadTranslationsAction extends BackgroundAction {
         }
     }
 
+    /**
+     * Adds the translation files to the storage concurrently. Uploads of one language are made in order,
+     * while different languages are uploaded concurrently. Files unchanged since they were last synced are skipped
+     */
+    private UploadSummary uploadTranslations(
+        Project project, Crowdin crowdin, StorageCache storageCache, TranslationManifest manifest, String manifestKey,
+        List<TranslationUpload> translationUploads, ProgressIndicator indicator
+    ) {
+        UploadSummary summary = new UploadSummary();
+        OperationJournal journal = OperationJournal.open(project, "upload-translations", manifestKey);
+        boolean finished = false;
+        try {
+            AtomicInteger done = new AtomicInteger();
+            indicator.setIndeterminate(false);
+            indicator.setFraction(0);
+            Map<String, CompletableFuture<Void>> languageUploads = new HashMap<>();
+            for (TranslationUpload translationUpload : translationUploads) {
+                CompletableFuture<Pair<Long, String>> storage = CompletableFuture.supplyAsync(() -> {
+                    if (indicator.isCanceled()) {
+                        return null;
+                    }
+                    try {
+                        byte[] content = Files.readAllBytes(translationUpload.file.toPath());
+                        String fingerprint = SourceManifest.fingerprint(content);
+                        if (manifest.isUnchanged(manifestKey, translationUpload.path, translationUpload.languageId, fingerprint)) {
+                            NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_translations.unchanged"), translationUpload.path));
+                            summary.record(UploadSummary.Outcome.SKIPPED);
+                            return null;
+                        }
+                        if (journal.isDone(OperationJournal.Step.TRANSLATION, translationUpload.journalKey(), fingerprint)) {
+                            NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_translations.resumed"), translationUpload.path));
+                            manifest.record(manifestKey, translationUpload.path, translationUpload.languageId, fingerprint);
+                            summary.record(UploadSummary.Outcome.SKIPPED);
+                            return null;
+                        }
+                        Long storageId = journal.getStorageId(translationUpload.journalKey(), fingerprint);
+                        if (storageId == null) {
+                            storageId = storageCache.addStorage(translationUpload.file.getName(), content, fingerprint);
+                            journal.record(OperationJournal.Step.STORAGE, translationUpload.journalKey(), fingerprint, storageId.toString());
+                        }
+                        return Pair.create(storageId, fingerprint);
+                    } catch (Exception exception) {
+                        NotificationUtil.logErrorMessage(project, exception);
+                        summary.recordFailure(String.format("'%s': %s", translationUpload.file, exception.getMessage()));
+                        return null;
+                    }
+                }, UPLOAD_EXECUTOR);
+                CompletableFuture<Void> previous = languageUploads.getOrDefault(translationUpload.languageId, CompletableFuture.completedFuture(null));
+                languageUploads.put(translationUpload.languageId, previous.thenCombineAsync(storage, (ignored, storedFile) -> {
+                    try {
+                        if (storedFile != null && !indicator.isCanceled()) {
+                            crowdin.uploadTranslation(translationUpload.languageId, RequestBuilder.uploadTranslation(translationUpload.sourceId, storedFile.getFirst()));
+                            manifest.record(manifestKey, translationUpload.path, translationUpload.languageId, storedFile.getSecond());
+                            journal.record(OperationJournal.Step.TRANSLATION, translationUpload.journalKey(), storedFile.getSecond(), null);
+                            summary.record(UploadSummary.Outcome.UPDATED);
+                        }
+                    } catch (Exception exception) {
+                        NotificationUtil.logErrorMessage(project, exception);
+                        summary.recordFailure(String.format("'%s': %s", translationUpload.file, exception.getMessage()));
+                    } finally {
+                        indicator.setFraction((double) done.incrementAndGet() / translationUploads.size());
+                    }
+                    return null;
+                }, UPLOAD_EXECUTOR));
+            }
+            CompletableFuture.allOf(languageUploads.values().toArray(new CompletableFuture[0])).join();
+            finished = summary.getFailed() == 0 && !indicator.isCanceled();
+        } finally {
+            journal.close(finished);
+        }
+        return summary;
+    }
+
+    private static final class TranslationUpload {
+
+        private final Long sourceId;
+        private final String languageId;
+        private final java.io.File file;
+        private final CrowdinPath path;
+
+        private TranslationUpload(Long sourceId, String languageId, java.io.File file, CrowdinPath path) {
+            this.sourceId = sourceId;
+            this.languageId = languageId;
+            this.file = file;
+            this.path = path;
+        }
+
+        private String journalKey() {
+            return languageId + ":" + path;
+        }
+    }
+
     @Override
     protected String loadingText(AnActionEvent e) {
         return MESSAGES_BUNDLE.getString("labels.loading_text.upload_translations");
@@ -8,6 +8,7 @@ import com.crowdin.client.translations.model.UploadTranslationsRequest;
 import com.crowdin.logic.BranchLogic;
 import com.crowdin.logic.ContextLogic;
 import com.crowdin.logic.CrowdinSettings;
+import com.crowdin.logic.SourceFilesIndex;
 import com.crowdin.util.*;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
@@ -68,8 +69,11 @@ public class UploadTranslationsFromContextAction extends BackgroundAction {
             Map<String, File> filePaths = crowdinProjectCache.getFiles(branch);
 
             indicator.checkCanceled();
+            LanguagePlaceholderTable languages = crowdinProjectCache.getLanguagePlaceholders();
+            Map<FileBean, List<VirtualFile>> sources = ServiceManager.getService(project, SourceFilesIndex.class).getSourceFiles(root, properties.getFiles());
             for (FileBean fileBean : properties.getFiles()) {
-                for (VirtualFile source : FileUtil.getSourceFilesRec(root, fileBean.getSource())) {
+                TranslationPatternTemplate translationTemplate = TranslationPatternTemplate.parse(fileBean.getTranslation());
+                for (VirtualFile source : sources.get(fileBean)) {
                     VirtualFile pathToPattern = FileUtil.getBaseDir(source, fileBean.getSource());
 
                     String relativePathToPattern = (properties.isPreserveHierarchy())
@@ -84,9 +88,10 @@ public class UploadTranslationsFromContextAction extends BackgroundAction {
                         NotificationUtil.showWarningMessage(project, String.format(MESSAGES_BUNDLE.getString("errors.missing_source"), (branchName != null ? branchName : "") + FileUtil.sepAtStart(FileUtil.joinPaths(relativePathToPattern, patternPathToFile, source.getName()))));
                         return;
                     }
-                    String basePattern = PlaceholderUtil.replaceFilePlaceholders(fileBean.getTranslation(), FileUtil.joinPaths(relativePathToPattern, patternPathToFile, source.getName()));
-                    for (Language lang : crowdinProjectCache.getProjectLanguages()) {
-                        String builtPattern = PlaceholderUtil.replaceLanguagePlaceholders(basePattern, lang, crowdinProjectCache.getLanguageMapping());
+                    TranslationPatternTemplate basePattern = translationTemplate.withFile(FileUtil.joinPaths(relativePathToPattern, patternPathToFile, source.getName()));
+                    for (int langIndex = 0; langIndex < languages.size(); langIndex++) {
+                        Language lang = languages.getLanguage(langIndex);
+                        String builtPattern = basePattern.render(languages, langIndex);
                         Path translationFile = Paths.get(pathToPattern.getPath(), builtPattern);
                         int compare = translationFile.compareTo(Paths.get(file.getPath()));
                         if (compare == 0) {
@@ -142,7 +147,7 @@ public class UploadTranslationsFromContextAction extends BackgroundAction {
             CrowdinProjectCacheProvider.CrowdinProjectCache crowdinProjectCache =
                 CrowdinProjectCacheProvider.getInstance(crowdin, branchName, false);
 
-            isTranslationFile = ContextLogic.findSourceFileFromTranslationFile(file, properties, root, crowdinProjectCache).isPresent();
+            isTranslationFile = ContextLogic.findSourceFileFromTranslationFile(project, file, properties, root, crowdinProjectCache).isPresent();
         } catch (Exception exception) {
 //            do nothing
         } finally {
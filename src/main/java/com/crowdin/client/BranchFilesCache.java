@@ -0,0 +1,149 @@
+package com.crowdin.client;
+
+import com.crowdin.client.sourcefiles.model.Branch;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * LRU cache of per-branch file trees. Entries are bounded both by count and by their estimated size,
+ * the entry of the current git branch is pinned and is never evicted.
+ * Trees grow after they are put, so sizes of changed trees are estimated again on every access.
+ */
+public class BranchFilesCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+    public static final long DEFAULT_MAX_ESTIMATED_BYTES = 128L * 1024 * 1024;
+
+    private final int maxEntries;
+    private final long maxEstimatedBytes;
+
+    private final LinkedHashMap<Branch, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private String pinnedBranchName;
+    private long estimatedBytes;
+    private long evictionCount;
+
+    public BranchFilesCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_ESTIMATED_BYTES);
+    }
+
+    public BranchFilesCache(int maxEntries, long maxEstimatedBytes) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries should be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.maxEstimatedBytes = maxEstimatedBytes;
+    }
+
+    /**
+     * Pins the branch with the given name. Only one branch is pinned at a time, so pinning another one releases the previous.
+     * @param branchName name of the current git branch. Empty or null if branches are disabled
+     */
+    public synchronized void pin(String branchName) {
+        this.pinnedBranchName = (branchName != null) ? branchName : "";
+        this.refreshEstimates();
+        this.evictIfNeeded(null);
+    }
+
+    public synchronized boolean contains(Branch branch) {
+        return entries.containsKey(branch);
+    }
+
+    /**
+     * @return file tree of the branch or null if the branch is not cached
+     */
+    public synchronized CrowdinFileTree get(Branch branch) {
+        Entry entry = entries.get(branch);
+        if (entry == null) {
+            return null;
+        }
+        this.refreshEstimates();
+        this.evictIfNeeded(entry);
+        return entry.tree;
+    }
+
+    public synchronized void put(Branch branch, CrowdinFileTree tree) {
+        Entry entry = new Entry(tree);
+        Entry previous = entries.put(branch, entry);
+        if (previous != null) {
+            estimatedBytes -= previous.estimatedBytes;
+        }
+        this.refreshEstimates();
+        this.evictIfNeeded(entry);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        estimatedBytes = 0;
+        evictionCount = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        this.refreshEstimates();
+        return estimatedBytes;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        this.refreshEstimates();
+        return String.format("entries: %d, estimated bytes: %d, evictions: %d", entries.size(), estimatedBytes, evictionCount);
+    }
+
+    /**
+     * Evicts least recently used entries until the cache fits into its bounds.
+     * @param justPut entry that was just put. It is kept so that the caller could still read it
+     */
+    private void evictIfNeeded(Entry justPut) {
+        Iterator<Map.Entry<Branch, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || estimatedBytes > maxEstimatedBytes) && iterator.hasNext()) {
+            Map.Entry<Branch, Entry> eldest = iterator.next();
+            if (eldest.getValue() == justPut || isPinned(eldest.getKey())) {
+                continue;
+            }
+            estimatedBytes -= eldest.getValue().estimatedBytes;
+            evictionCount++;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Estimates sizes of the trees that were changed since they were estimated last time
+     */
+    private void refreshEstimates() {
+        for (Entry entry : entries.values()) {
+            int modificationCount = entry.tree.modificationCount();
+            if (modificationCount != entry.modificationCount) {
+                long bytes = entry.tree.estimateBytes();
+                estimatedBytes += bytes - entry.estimatedBytes;
+                entry.estimatedBytes = bytes;
+                entry.modificationCount = modificationCount;
+            }
+        }
+    }
+
+    private boolean isPinned(Branch branch) {
+        String branchName = (branch != null) ? branch.getName() : "";
+        return Objects.equals(pinnedBranchName, branchName);
+    }
+
+    private static class Entry {
+        private final CrowdinFileTree tree;
+        private long estimatedBytes;
+        /** Modification count of the tree when it was estimated, -1 if it wasn't estimated yet */
+        private int modificationCount = -1;
+
+        private Entry(CrowdinFileTree tree) {
+            this.tree = tree;
+        }
+    }
+}
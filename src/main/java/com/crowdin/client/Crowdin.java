@@ -13,6 +13,7 @@ import com.crowdin.client.translations.model.ProjectBuild;
 import com.crowdin.client.translations.model.UploadTranslationsRequest;
 import com.crowdin.client.translationstatus.model.FileProgress;
 import com.crowdin.client.translationstatus.model.LanguageProgress;
+import com.crowdin.util.LongObjectHashMap;
 import com.crowdin.util.RetryUtil;
 import com.crowdin.util.Util;
 import com.intellij.openapi.project.Project;
@@ -42,13 +43,28 @@ public class Crowdin {
     private final com.crowdin.client.Client client;
 
     public Crowdin(@NotNull Project project, @NotNull Long projectId, @NotNull String apiToken, String baseUrl) {
+        this(project, projectId, new Client(
+            new Credentials(apiToken, null, baseUrl),
+            ClientConfig.builder()
+                .userAgent(Util.getUserAgent())
+                .build()));
+    }
+
+    Crowdin(Project project, @NotNull Long projectId, @NotNull Client client) {
         this.project = project;
         this.projectId = projectId;
-        Credentials credentials = new Credentials(apiToken, null, baseUrl);
-        ClientConfig clientConfig = ClientConfig.builder()
-            .userAgent(Util.getUserAgent())
-            .build();
-        this.client = new Client(credentials, clientConfig);
+        this.client = client;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * @return IDE project this client was created for
+     */
+    public Project getIdeProject() {
+        return project;
     }
 
     public Long addStorage(String fileName, InputStream content) {
@@ -58,9 +74,13 @@ public class Crowdin {
             .getId());
     }
 
-    public void updateSource(Long sourceId, UpdateFileRequest request) {
-        executeRequest(() -> this.client.getSourceFilesApi()
-            .updateOrRestoreFile(this.projectId, sourceId, request));
+    /**
+     * @return updated file
+     */
+    public FileInfo updateSource(Long sourceId, UpdateFileRequest request) {
+        return executeRequest(() -> this.client.getSourceFilesApi()
+            .updateOrRestoreFile(this.projectId, sourceId, request)
+            .getData());
     }
 
     public URL downloadFile(Long fileId) {
@@ -69,9 +89,13 @@ public class Crowdin {
             .getData()));
     }
 
-    public void addSource(AddFileRequest request) {
-        executeRequest(() -> this.client.getSourceFilesApi()
-            .addFile(this.projectId, request));
+    /**
+     * @return added file
+     */
+    public FileInfo addSource(AddFileRequest request) {
+        return executeRequest(() -> this.client.getSourceFilesApi()
+            .addFile(this.projectId, request)
+            .getData());
     }
 
     public void editSource(Long fileId, List<PatchRequest> request) {
@@ -84,10 +108,26 @@ public class Crowdin {
             .uploadTranslations(this.projectId, languageId, request));
     }
 
+    /**
+     * If the directory is created concurrently by another request, the created directory is returned
+     */
     public Directory addDirectory(AddDirectoryRequest request) {
-        return executeRequest(() -> this.client.getSourceFilesApi()
-            .addDirectory(this.projectId, request)
-            .getData());
+        return executeRequest(() -> {
+            try {
+                return this.client.getSourceFilesApi()
+                    .addDirectory(this.projectId, request)
+                    .getData();
+            } catch (RuntimeException e) {
+                if (!this.concurrentIssue(e)) {
+                    throw e;
+                }
+                try {
+                    return this.waitAndFindDirectory(request);
+                } catch (Exception findError) {
+                    throw new RuntimeException(findError.getMessage(), e);
+                }
+            }
+        });
     }
 
     public com.crowdin.client.projectsgroups.model.Project getProject() {
@@ -132,7 +172,7 @@ public class Crowdin {
             .collect(Collectors.toList()));
     }
 
-    public Map<Long, Directory> getDirectories(Long branchId) {
+    public LongObjectHashMap<Directory> getDirectories(Long branchId) {
         return executeRequestFullList((limit, offset) ->
                 this.client.getSourceFilesApi()
                     .listDirectories(this.projectId, branchId, null, true, limit, offset)
@@ -141,7 +181,7 @@ public class Crowdin {
             .stream()
             .map(ResponseObject::getData)
             .filter(dir -> Objects.equals(dir.getBranchId(), branchId))
-            .collect(Collectors.toMap(Directory::getId, Function.identity()));
+            .collect(LongObjectHashMap::new, (dirs, dir) -> dirs.put(dir.getId().longValue(), dir), LongObjectHashMap::putAll);
     }
 
     public List<com.crowdin.client.sourcefiles.model.FileInfo> getFiles(Long branchId) {
@@ -270,6 +310,24 @@ public class Crowdin {
         });
     }
 
+    private Directory waitAndFindDirectory(AddDirectoryRequest request) throws Exception {
+        Long branchId = (request.getDirectoryId() == null) ? request.getBranchId() : null;
+        return RetryUtil.retry(() -> {
+            List<ResponseObject<Directory>> directories = executeRequestFullList((limit, offset) ->
+                this.client.getSourceFilesApi()
+                    .listDirectories(this.projectId, branchId, request.getDirectoryId(), null, limit, offset)
+                    .getData()
+            );
+            return directories.stream()
+                .map(ResponseObject::getData)
+                .filter(dir -> dir.getName().equals(request.getName())
+                    && Objects.equals(dir.getDirectoryId(), request.getDirectoryId())
+                    && (request.getDirectoryId() != null || Objects.equals(dir.getBranchId(), branchId)))
+                .findFirst()
+                .orElseThrow(() -> new Exception(String.format(MESSAGES_BUNDLE.getString("errors.find_directory"), request.getName())));
+        });
+    }
+
     private boolean customMessage(Exception e) {
         if (e instanceof HttpException) {
             HttpException ex = (HttpException) e;
@@ -0,0 +1,621 @@
+package com.crowdin.client;
+
+import com.crowdin.client.sourcefiles.model.Directory;
+import com.crowdin.client.sourcefiles.model.ExportOptions;
+import com.crowdin.client.sourcefiles.model.File;
+import com.crowdin.client.sourcefiles.model.FileInfo;
+import com.crowdin.client.sourcefiles.model.GeneralFileExportOptions;
+import com.crowdin.client.sourcefiles.model.PropertyFileExportOptions;
+import com.crowdin.util.CrowdinPath;
+import com.crowdin.util.LongIntHashMap;
+import com.crowdin.util.PathSuffixIndex;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Compact columnar representation of Crowdin files and directories of one branch.
+ * Ids are kept in primitive arrays, names are interned segments referenced by index and
+ * paths are not stored at all, they are reconstructed from parent indices on demand.
+ * Model objects are materialized only when requested through {@link #asFileMap()} or {@link #asDirectoryMap()}.
+ * Only the fields the plugin reads are kept, see {@link #asFileMap()}.
+ */
+public class CrowdinFileTree {
+
+    private static final int ROOT = -1;
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Long branchId;
+    private final String branchName;
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIndices = new HashMap<>();
+
+    private long[] dirIds = new long[INITIAL_CAPACITY];
+    private int[] dirParents = new int[INITIAL_CAPACITY];
+    private int[] dirNames = new int[INITIAL_CAPACITY];
+    private int dirCount;
+    private final LongIntHashMap dirIndicesById = new LongIntHashMap();
+    private final LongIntHashMap dirChildren = new LongIntHashMap();
+
+    private long[] fileIds = new long[INITIAL_CAPACITY];
+    private int[] fileDirs = new int[INITIAL_CAPACITY];
+    private int[] fileNames = new int[INITIAL_CAPACITY];
+    private long[] fileRevisions = new long[INITIAL_CAPACITY];
+    private int[] fileExportOptions = new int[INITIAL_CAPACITY];
+    private int[] fileExcludedLanguages = new int[INITIAL_CAPACITY];
+    private int fileCount;
+    private boolean fullFiles;
+    /** Some files were added without additional information */
+    private boolean plainFiles;
+    /** Incremented on every change, so the size estimate is recomputed only for changed trees */
+    private int modificationCount;
+    private final LongIntHashMap fileChildren = new LongIntHashMap();
+
+    private final List<ExportOptions> exportOptions = new ArrayList<>();
+    private final Map<List<Object>, Integer> exportOptionIndices = new HashMap<>();
+    private final List<List<String>> excludedLanguages = new ArrayList<>();
+    private final Map<List<String>, Integer> excludedLanguageIndices = new HashMap<>();
+
+    private PathSuffixIndex<Long> suffixIndex;
+
+    private final Map<String, FileInfo> fileMapView = new FileMapView();
+    private final Map<String, Directory> directoryMapView = new DirectoryMapView();
+
+    private CrowdinFileTree(Long branchId, String branchName) {
+        this.branchId = branchId;
+        this.branchName = branchName;
+    }
+
+    public static CrowdinFileTree empty(Long branchId, String branchName) {
+        return new CrowdinFileTree(branchId, branchName);
+    }
+
+    public static CrowdinFileTree build(Long branchId, String branchName, List<? extends FileInfo> files, Map<Long, Directory> dirs) {
+        CrowdinFileTree tree = new CrowdinFileTree(branchId, branchName);
+        for (Directory dir : dirs.values()) {
+            tree.addDirectory(dir, dirs);
+        }
+        for (FileInfo file : files) {
+            tree.addFile(file);
+        }
+        return tree;
+    }
+
+    /**
+     * Read-only view of files by their paths. Paths have the same format as {@link com.crowdin.util.CrowdinFileUtil#buildFilePaths},
+     * {@link CrowdinPath} keys are accepted by lookups as well.
+     * Values are rebuilt on every lookup and are not the objects returned by the API. Only id, name, branch id, directory id and path are set,
+     * {@link File} values also have revision id, export options and excluded target languages. Other fields, like type, title, status or priority, are null
+     * @return view of files by their paths
+     */
+    public Map<String, FileInfo> asFileMap() {
+        return fileMapView;
+    }
+
+    /**
+     * View of directories by their paths. Putting a new directory appends it to the tree, the key is ignored as the path is derived from the directory's parent
+     * @return view of directories by their paths
+     */
+    public Map<String, Directory> asDirectoryMap() {
+        return directoryMapView;
+    }
+
+    /**
+     * @return file with the path or null, with the same fields set as the values of {@link #asFileMap()}
+     */
+    public FileInfo getFile(CrowdinPath path) {
+        int index = this.find(path, true);
+        return (index != NONE) ? this.materializeFile(index) : null;
+    }
+
+    /**
+     * @return directory with the path or null
+     */
+    public Directory getDirectory(CrowdinPath path) {
+        int index = this.find(path, false);
+        return (index != NONE) ? this.materializeDirectory(index) : null;
+    }
+
+    /**
+     * Matches local files when hierarchy is not preserved, through an index of file paths by their suffixes.
+     * The index is built on the first call and kept up to date when files are added
+     * @return ids of the files whose paths are suffixes of the path, see {@link PathSuffixIndex#findSuffixesOf}
+     */
+    public synchronized List<Long> findSuffixesOf(String path) {
+        if (suffixIndex == null) {
+            suffixIndex = new PathSuffixIndex<>();
+            String[] dirPaths = this.dirPaths();
+            for (int file = 0; file < fileCount; file++) {
+                suffixIndex.add(this.filePath(dirPaths, file), fileIds[file]);
+            }
+        }
+        return suffixIndex.findSuffixesOf(path);
+    }
+
+    public synchronized int fileCount() {
+        return fileCount;
+    }
+
+    public synchronized int directoryCount() {
+        return dirCount;
+    }
+
+    /**
+     * @throws RuntimeException if the parent directory is not in the tree
+     */
+    public synchronized void addDirectory(Directory dir) {
+        this.addDirectory(dir, null);
+    }
+
+    /**
+     * @return true if all files were added with additional information, so the file map holds only {@link File} values
+     */
+    public synchronized boolean hasFullFiles() {
+        return !plainFiles;
+    }
+
+    public synchronized int modificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * @throws RuntimeException if the directory of the file is not in the tree
+     */
+    public synchronized void addFile(FileInfo file) {
+        int dir = ROOT;
+        if (file.getDirectoryId() != null) {
+            dir = dirIndicesById.get(file.getDirectoryId(), NONE);
+            if (dir == NONE) {
+                throw new RuntimeException(String.format("Unexpected error: Directory %d of the file '%s' is not loaded", file.getDirectoryId(), file.getName()));
+            }
+        }
+        int name = this.intern(file.getName());
+        if (fileCount == fileIds.length) {
+            int capacity = fileCount * 2;
+            fileIds = Arrays.copyOf(fileIds, capacity);
+            fileDirs = Arrays.copyOf(fileDirs, capacity);
+            fileNames = Arrays.copyOf(fileNames, capacity);
+            fileRevisions = Arrays.copyOf(fileRevisions, capacity);
+            fileExportOptions = Arrays.copyOf(fileExportOptions, capacity);
+            fileExcludedLanguages = Arrays.copyOf(fileExcludedLanguages, capacity);
+        }
+        int index = fileCount++;
+        modificationCount++;
+        fileIds[index] = file.getId();
+        fileDirs[index] = dir;
+        fileNames[index] = name;
+        fileRevisions[index] = NONE;
+        fileExportOptions[index] = NONE;
+        fileExcludedLanguages[index] = NONE;
+        if (file instanceof File) {
+            File fullFile = (File) file;
+            fullFiles = true;
+            fileRevisions[index] = (fullFile.getRevisionId() != null) ? fullFile.getRevisionId() : NONE;
+            fileExportOptions[index] = this.internExportOptions(fullFile.getExportOptions());
+            fileExcludedLanguages[index] = this.internExcludedLanguages(fullFile.getExcludedTargetLanguages());
+        } else {
+            plainFiles = true;
+        }
+        fileChildren.put(childKey(dir, name), index);
+        if (suffixIndex != null) {
+            StringBuilder path = new StringBuilder();
+            this.appendDirPath(path, dir, java.io.File.separator);
+            suffixIndex.add(path.append(java.io.File.separator).append(names.get(name)).toString(), fileIds[index]);
+        }
+    }
+
+    /**
+     * @return estimated number of bytes retained by this tree
+     */
+    public synchronized long estimateBytes() {
+        long bytes = 0;
+        bytes += (long) dirIds.length * (8 + 4 + 4);
+        bytes += (long) fileIds.length * (8 + 4 + 4 + 8 + 4 + 4);
+        bytes += (long) (dirIndicesById.capacity() + dirChildren.capacity() + fileChildren.capacity()) * (8 + 4 + 1);
+        bytes += (long) nameIndices.size() * 64;
+        for (String name : names) {
+            bytes += 40 + 2L * name.length();
+        }
+        bytes += (exportOptions.size() + excludedLanguages.size()) * 128L;
+        return bytes;
+    }
+
+    private int addDirectory(Directory dir, Map<Long, Directory> pending) {
+        int existing = dirIndicesById.get(dir.getId(), NONE);
+        if (existing != NONE) {
+            return existing;
+        }
+        int parent = ROOT;
+        if (dir.getDirectoryId() != null) {
+            int parentIndex = dirIndicesById.get(dir.getDirectoryId(), NONE);
+            if (parentIndex != NONE) {
+                parent = parentIndex;
+            } else if (pending != null && pending.containsKey(dir.getDirectoryId())) {
+                parent = this.addDirectory(pending.get(dir.getDirectoryId()), pending);
+            } else {
+                throw new RuntimeException(String.format("Unexpected error: Parent directory %d of the directory '%s' is not loaded", dir.getDirectoryId(), dir.getName()));
+            }
+        }
+        int name = this.intern(dir.getName());
+        if (dirCount == dirIds.length) {
+            int capacity = dirCount * 2;
+            dirIds = Arrays.copyOf(dirIds, capacity);
+            dirParents = Arrays.copyOf(dirParents, capacity);
+            dirNames = Arrays.copyOf(dirNames, capacity);
+        }
+        int index = dirCount++;
+        modificationCount++;
+        dirIds[index] = dir.getId();
+        dirParents[index] = parent;
+        dirNames[index] = name;
+        dirIndicesById.put(dir.getId(), index);
+        dirChildren.put(childKey(parent, name), index);
+        return index;
+    }
+
+    private int intern(String name) {
+        Integer index = nameIndices.get(name);
+        if (index == null) {
+            index = names.size();
+            names.add(name.intern());
+            nameIndices.put(names.get(index), index);
+        }
+        return index;
+    }
+
+    private int internExportOptions(ExportOptions options) {
+        List<Object> key = exportOptionsKey(options);
+        if (key == null) {
+            return NONE;
+        }
+        Integer index = exportOptionIndices.get(key);
+        if (index == null) {
+            index = exportOptions.size();
+            exportOptions.add(copyExportOptions(options));
+            exportOptionIndices.put(key, index);
+        }
+        return index;
+    }
+
+    private int internExcludedLanguages(List<String> languages) {
+        if (languages == null) {
+            return NONE;
+        }
+        Integer index = excludedLanguageIndices.get(languages);
+        if (index == null) {
+            index = excludedLanguages.size();
+            excludedLanguages.add(languages);
+            excludedLanguageIndices.put(languages, index);
+        }
+        return index;
+    }
+
+    /**
+     * @return key of the options by their type and all their settings, or null if the options are not supported
+     */
+    private static List<Object> exportOptionsKey(ExportOptions options) {
+        if (options instanceof GeneralFileExportOptions) {
+            GeneralFileExportOptions generalOptions = (GeneralFileExportOptions) options;
+            return Arrays.asList(options.getClass(), generalOptions.getExportPattern());
+        } else if (options instanceof PropertyFileExportOptions) {
+            PropertyFileExportOptions propertyOptions = (PropertyFileExportOptions) options;
+            return Arrays.asList(options.getClass(), propertyOptions.getExportPattern(),
+                propertyOptions.getEscapeQuotes(), propertyOptions.getEscapeSpecialCharacters());
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Options are mutable, so every materialized file gets its own copy of the interned options
+     */
+    private static ExportOptions copyExportOptions(ExportOptions options) {
+        if (options instanceof PropertyFileExportOptions) {
+            PropertyFileExportOptions propertyOptions = (PropertyFileExportOptions) options;
+            PropertyFileExportOptions copy = new PropertyFileExportOptions();
+            copy.setExportPattern(propertyOptions.getExportPattern());
+            copy.setEscapeQuotes(propertyOptions.getEscapeQuotes());
+            copy.setEscapeSpecialCharacters(propertyOptions.getEscapeSpecialCharacters());
+            return copy;
+        } else {
+            GeneralFileExportOptions copy = new GeneralFileExportOptions();
+            copy.setExportPattern(((GeneralFileExportOptions) options).getExportPattern());
+            return copy;
+        }
+    }
+
+    private static long childKey(int parent, int name) {
+        return ((long) (parent + 1) << 32) | (name & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Walks the tree by path segments.
+     * @return index of the found file or directory, or NONE
+     */
+    private synchronized int find(String path, boolean isFile) {
+        int parent = ROOT;
+        int end = path.length();
+        int start = 0;
+        while (start < end) {
+            while (start < end && isSeparator(path.charAt(start))) {
+                start++;
+            }
+            int segmentEnd = start;
+            while (segmentEnd < end && !isSeparator(path.charAt(segmentEnd))) {
+                segmentEnd++;
+            }
+            if (start == segmentEnd) {
+                break;
+            }
+            Integer name = nameIndices.get(path.substring(start, segmentEnd));
+            if (name == null) {
+                return NONE;
+            }
+            boolean isLast = !hasMoreSegments(path, segmentEnd);
+            int child = (isLast && isFile)
+                ? fileChildren.get(childKey(parent, name), NONE)
+                : dirChildren.get(childKey(parent, name), NONE);
+            if (child == NONE) {
+                return NONE;
+            }
+            if (isLast) {
+                return child;
+            }
+            parent = child;
+            start = segmentEnd;
+        }
+        return NONE;
+    }
+
+    /**
+     * Walks the tree by already split path segments.
+     * @return index of the found file or directory, or NONE
+     */
+    private synchronized int find(CrowdinPath path, boolean isFile) {
+        int parent = ROOT;
+        int last = path.getSegmentCount() - 1;
+        for (int i = 0; i <= last; i++) {
+            Integer name = nameIndices.get(path.getSegment(i));
+            if (name == null) {
+                return NONE;
+            }
+            int child = (i == last && isFile)
+                ? fileChildren.get(childKey(parent, name), NONE)
+                : dirChildren.get(childKey(parent, name), NONE);
+            if (child == NONE) {
+                return NONE;
+            }
+            parent = child;
+        }
+        return (last >= 0) ? parent : NONE;
+    }
+
+    private static boolean hasMoreSegments(String path, int from) {
+        for (int i = from; i < path.length(); i++) {
+            if (!isSeparator(path.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '/' || c == '\\';
+    }
+
+    /**
+     * Builds paths of all directories in one pass. Parents are always added before their subdirectories,
+     * so every path is its parent's path with one more segment.
+     */
+    private synchronized String[] dirPaths() {
+        String[] paths = new String[dirCount];
+        for (int dir = 0; dir < dirCount; dir++) {
+            String parentPath = (dirParents[dir] != ROOT) ? paths[dirParents[dir]] : "";
+            paths[dir] = parentPath + java.io.File.separator + names.get(dirNames[dir]);
+        }
+        return paths;
+    }
+
+    private synchronized String filePath(String[] dirPaths, int file) {
+        String dirPath = (fileDirs[file] != ROOT) ? dirPaths[fileDirs[file]] : "";
+        return dirPath + java.io.File.separator + names.get(fileNames[file]);
+    }
+
+    private void appendDirPath(StringBuilder sb, int dir, String separator) {
+        if (dir == ROOT) {
+            return;
+        }
+        this.appendDirPath(sb, dirParents[dir], separator);
+        sb.append(separator).append(names.get(dirNames[dir]));
+    }
+
+    private synchronized FileInfo materializeFile(int index) {
+        FileInfo file;
+        if (fullFiles) {
+            File fullFile = new File();
+            if (fileRevisions[index] != NONE) {
+                fullFile.setRevisionId(fileRevisions[index]);
+            }
+            if (fileExportOptions[index] != NONE) {
+                fullFile.setExportOptions(copyExportOptions(exportOptions.get(fileExportOptions[index])));
+            }
+            if (fileExcludedLanguages[index] != NONE) {
+                fullFile.setExcludedTargetLanguages(excludedLanguages.get(fileExcludedLanguages[index]));
+            }
+            file = fullFile;
+        } else {
+            file = new FileInfo();
+        }
+        file.setId(fileIds[index]);
+        file.setName(names.get(fileNames[index]));
+        file.setBranchId(branchId);
+        file.setDirectoryId((fileDirs[index] != ROOT) ? dirIds[fileDirs[index]] : null);
+        StringBuilder serverPath = new StringBuilder();
+        if (branchName != null && !branchName.isEmpty()) {
+            serverPath.append('/').append(branchName);
+        }
+        this.appendDirPath(serverPath, fileDirs[index], "/");
+        file.setPath(serverPath.append('/').append(file.getName()).toString());
+        return file;
+    }
+
+    private synchronized Directory materializeDirectory(int index) {
+        Directory dir = new Directory();
+        dir.setId(dirIds[index]);
+        dir.setName(names.get(dirNames[index]));
+        dir.setBranchId(branchId);
+        dir.setDirectoryId((dirParents[index] != ROOT) ? dirIds[dirParents[index]] : null);
+        return dir;
+    }
+
+    private class FileMapView extends AbstractMap<String, FileInfo> {
+
+        @Override
+        public FileInfo get(Object key) {
+            int index = this.find(key);
+            return (index != NONE) ? materializeFile(index) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return this.find(key) != NONE;
+        }
+
+        private int find(Object key) {
+            if (key instanceof CrowdinPath) {
+                return CrowdinFileTree.this.find((CrowdinPath) key, true);
+            }
+            return (key instanceof String) ? CrowdinFileTree.this.find((String) key, true) : NONE;
+        }
+
+        @Override
+        public int size() {
+            return fileCount();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return new IndexedSet<>(CrowdinFileTree.this::fileCount, () -> {
+                String[] dirPaths = dirPaths();
+                return index -> filePath(dirPaths, index);
+            });
+        }
+
+        @Override
+        public Collection<FileInfo> values() {
+            return new IndexedSet<>(CrowdinFileTree.this::fileCount, () -> CrowdinFileTree.this::materializeFile);
+        }
+
+        @Override
+        public Set<Entry<String, FileInfo>> entrySet() {
+            return new IndexedSet<>(CrowdinFileTree.this::fileCount, () -> {
+                String[] dirPaths = dirPaths();
+                return index -> new SimpleImmutableEntry<>(filePath(dirPaths, index), materializeFile(index));
+            });
+        }
+    }
+
+    private class DirectoryMapView extends AbstractMap<String, Directory> {
+
+        @Override
+        public Directory get(Object key) {
+            int index = this.find(key);
+            return (index != NONE) ? materializeDirectory(index) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return this.find(key) != NONE;
+        }
+
+        private int find(Object key) {
+            if (key instanceof CrowdinPath) {
+                return CrowdinFileTree.this.find((CrowdinPath) key, false);
+            }
+            return (key instanceof String) ? CrowdinFileTree.this.find((String) key, false) : NONE;
+        }
+
+        @Override
+        public Directory put(String key, Directory value) {
+            addDirectory(value);
+            return null;
+        }
+
+        @Override
+        public int size() {
+            return directoryCount();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return new IndexedSet<>(CrowdinFileTree.this::directoryCount, () -> {
+                String[] dirPaths = dirPaths();
+                return index -> dirPaths[index];
+            });
+        }
+
+        @Override
+        public Set<Entry<String, Directory>> entrySet() {
+            return new IndexedSet<>(CrowdinFileTree.this::directoryCount, () -> {
+                String[] dirPaths = dirPaths();
+                return index -> new SimpleImmutableEntry<>(dirPaths[index], materializeDirectory(index));
+            });
+        }
+    }
+
+    /**
+     * Read-only set which materializes its elements by index while iterating.
+     * The element function is created once per iteration, so it can hold state shared by all elements, like resolved directory paths
+     */
+    private static class IndexedSet<E> extends AbstractSet<E> {
+
+        private final IntSupplier size;
+        private final Supplier<IntFunction<E>> elements;
+
+        private IndexedSet(IntSupplier size, Supplier<IntFunction<E>> elements) {
+            this.size = size;
+            this.elements = elements;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            int count = size.getAsInt();
+            IntFunction<E> element = elements.get();
+            return new Iterator<E>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < count;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return element.apply(next++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size.getAsInt();
+        }
+    }
+}
@@ -7,14 +7,23 @@ import com.crowdin.client.sourcefiles.model.Branch;
 import com.crowdin.client.sourcefiles.model.Directory;
 import com.crowdin.client.sourcefiles.model.File;
 import com.crowdin.client.sourcefiles.model.FileInfo;
-import com.crowdin.util.CrowdinFileUtil;
 import com.crowdin.util.LanguageMapping;
+import com.crowdin.util.LanguagePlaceholderTable;
+import com.crowdin.util.LongObjectHashMap;
+import com.crowdin.util.NotificationUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import lombok.Data;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.crowdin.Constants.MESSAGES_BUNDLE;
 
 public class CrowdinProjectCacheProvider {
 
@@ -30,9 +39,14 @@ public class CrowdinProjectCacheProvider {
         private List<Language> SupportedLanguages;
         private List<Language> ProjectLanguages;
         private Map<String, Branch> branches;
-        private Map<Branch, Map<String, Directory>> dirs;
-        private Map<Branch, Map<String, ? extends FileInfo>> fileInfos;
+        private BranchFilesCache branchFiles;
         private LanguageMapping languageMapping;
+        private LanguagePlaceholderTable languagePlaceholders;
+        private LabelRegistry labels;
+        /**
+         * Incremented every time project information, and with it project languages and language mapping, is reloaded
+         */
+        private long version;
 
         /**
          * Returns project information with additional information. Should be checked for managerAccess before accessing this value
@@ -43,30 +57,37 @@ public class CrowdinProjectCacheProvider {
             return (ProjectSettings) this.getProject();
         }
 
-        @SuppressWarnings("unchecked")
         public Map<String, FileInfo> getFileInfos(Branch branch) {
-            if (fileInfos.containsKey(branch)) {
-                return (Map<String, FileInfo>) fileInfos.get(branch);
-            } else {
-                Map<String, FileInfo> newMap = new HashMap<>();
-                fileInfos.put(branch, newMap);
-                return newMap;
-            }
+            return this.getFileTree(branch).asFileMap();
         }
 
         /**
-         * Returns list of files with additional information. Should be checked for managerAccess before accessing this values
+         * Returns list of files with additional information. Should be checked for managerAccess before accessing this values.
+         * Only the fields described in {@link CrowdinFileTree#asFileMap()} are set
          * @return List of files with additional information
          */
         @SuppressWarnings("unchecked")
         public Map<String, File> getFiles(Branch branch) {
             this.checkForManagerAccess();
-            if (fileInfos.containsKey(branch)) {
-                return (Map<String, File>) fileInfos.get(branch);
-            } else {
-                Map<String, File> newMap = new HashMap<>();
-                fileInfos.put(branch, newMap);
-                return newMap;
+            CrowdinFileTree fileTree = this.getFileTree(branch);
+            if (!fileTree.hasFullFiles()) {
+                throw new RuntimeException("Unexpected error: Files were loaded without additional information");
+            }
+            return (Map<String, File>) (Map<String, ? extends FileInfo>) fileTree.asFileMap();
+        }
+
+        public Map<String, Directory> getDirs(Branch branch) {
+            return this.getFileTree(branch).asDirectoryMap();
+        }
+
+        public CrowdinFileTree getFileTree(Branch branch) {
+            synchronized (branchFiles) {
+                if (!branchFiles.contains(branch)) {
+                    branchFiles.put(branch, (branch != null)
+                        ? CrowdinFileTree.empty(branch.getId(), branch.getName())
+                        : CrowdinFileTree.empty(null, null));
+                }
+                return branchFiles.get(branch);
             }
         }
 
@@ -79,6 +100,15 @@ public class CrowdinProjectCacheProvider {
             return languageMapping;
         }
 
+        /**
+         * Returns placeholder values of project languages, resolved with server language mapping. Should be checked for managerAccess before accessing this value
+         * @return Placeholder values of project languages
+         */
+        public LanguagePlaceholderTable getLanguagePlaceholders() {
+            this.checkForManagerAccess();
+            return languagePlaceholders;
+        }
+
         private void checkForManagerAccess() {
             if (!isManagerAccess()) {
                 throw new RuntimeException("Unexpected error: Manager access is required");
@@ -95,48 +125,102 @@ public class CrowdinProjectCacheProvider {
         if (crowdinProjectCache == null) {
             crowdinProjectCache = new CrowdinProjectCache();
         }
-        if (crowdinProjectCache.getProject() == null || update) {
-            crowdinProjectCache.setProject(crowdin.getProject());
+        if (crowdinProjectCache.getBranchFiles() == null) {
+            crowdinProjectCache.setBranchFiles(new BranchFilesCache());
+        }
+        crowdinProjectCache.getBranchFiles().pin(branchName);
+        if (crowdinProjectCache.getLabels() == null) {
+            crowdinProjectCache.setLabels(new LabelRegistry());
+        } else if (update) {
+            crowdinProjectCache.getLabels().invalidate();
+        }
+
+        long started = System.nanoTime();
+        Map<String, Long> requestTimes = new ConcurrentHashMap<>();
+        boolean loadProject = crowdinProjectCache.getProject() == null || update;
+        boolean loadBranches = crowdinProjectCache.getBranches() == null || outdated || update;
+        CompletableFuture<Project> projectFuture = (loadProject)
+            ? timedAsync("project", requestTimes, crowdin::getProject)
+            : CompletableFuture.completedFuture(crowdinProjectCache.getProject());
+        CompletableFuture<List<Language>> supportedLanguagesFuture = (crowdinProjectCache.getSupportedLanguages() == null)
+            ? timedAsync("supported languages", requestTimes, crowdin::getSupportedLanguages)
+            : CompletableFuture.completedFuture(crowdinProjectCache.getSupportedLanguages());
+        CompletableFuture<Map<String, Branch>> branchesFuture = (loadBranches)
+            ? timedAsync("branches", requestTimes, crowdin::getBranches)
+            : CompletableFuture.completedFuture(crowdinProjectCache.getBranches());
+        boolean outdatedBranch = outdatedBranches.contains(branchName);
+        BranchFilesCache branchFiles = crowdinProjectCache.getBranchFiles();
+        CompletableFuture<CrowdinFileTree> fileTreeFuture = branchesFuture.thenCompose(branches -> {
+            if ((branchName != null && !branchName.isEmpty()) && !branches.containsKey(branchName)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            Branch branch = branches.get(branchName);
+            if (branchFiles.contains(branch) && !outdatedBranch && !update) {
+                return CompletableFuture.completedFuture(null);
+            }
+            Long branchId = (branch != null) ? branch.getId() : null;
+            String branchNameOrNull = (branch != null) ? branch.getName() : null;
+            CompletableFuture<List<FileInfo>> filesFuture = timedAsync("files", requestTimes, () -> crowdin.getFiles(branchId));
+            CompletableFuture<LongObjectHashMap<Directory>> dirsFuture = timedAsync("directories", requestTimes, () -> crowdin.getDirectories(branchId));
+            return filesFuture.thenCombine(dirsFuture, (files, dirs) -> CrowdinFileTree.build(branchId, branchNameOrNull, files, dirs));
+        });
+
+        if (loadProject) {
+            crowdinProjectCache.setProject(join(projectFuture));
+            crowdinProjectCache.setVersion(crowdinProjectCache.getVersion() + 1);
             crowdinProjectCache.setManagerAccess(crowdinProjectCache.getProject() instanceof ProjectSettings);
             if (crowdinProjectCache.isManagerAccess()) {
                 crowdinProjectCache.setLanguageMapping(
                     LanguageMapping.fromServerLanguageMapping(crowdinProjectCache.getProjectSettings().getLanguageMapping()));
             }
         }
-        if (crowdinProjectCache.getSupportedLanguages() == null) {
-            crowdinProjectCache.setSupportedLanguages(crowdin.getSupportedLanguages());
-        }
+        crowdinProjectCache.setSupportedLanguages(join(supportedLanguagesFuture));
         if (crowdinProjectCache.getProjectLanguages() == null || update) {
             crowdinProjectCache.setProjectLanguages(crowdin.extractProjectLanguages(crowdinProjectCache.getProject()));
+            crowdinProjectCache.setLanguagePlaceholders(null);
         }
-        if (crowdinProjectCache.getBranches() == null || outdated || update) {
-            crowdinProjectCache.setBranches(crowdin.getBranches());
-            outdated = false;
+        if (crowdinProjectCache.isManagerAccess() && (crowdinProjectCache.languagePlaceholders == null || loadProject)) {
+            crowdinProjectCache.setLanguagePlaceholders(
+                LanguagePlaceholderTable.build(crowdinProjectCache.getProjectLanguages(), crowdinProjectCache.getLanguageMapping()));
         }
-        if (crowdinProjectCache.getFileInfos() == null) {
-            crowdinProjectCache.setFileInfos(new HashMap<>());
-        }
-        if (crowdinProjectCache.getDirs() == null) {
-            crowdinProjectCache.setDirs(new HashMap<>());
-        }
-        if ((branchName != null && !branchName.isEmpty()) && !crowdinProjectCache.getBranches().containsKey(branchName)) {
-            return crowdinProjectCache;
+        if (loadBranches) {
+            crowdinProjectCache.setBranches(join(branchesFuture));
+            outdated = false;
         }
-        Branch branch = crowdinProjectCache.getBranches().get(branchName);
-        if (!crowdinProjectCache.getFileInfos().containsKey(branch)
-                || !crowdinProjectCache.getDirs().containsKey(branch)
-                || outdatedBranches.contains(branchName)
-                || update) {
-            Long branchId = (branch != null) ? branch.getId() : null;
-            List<com.crowdin.client.sourcefiles.model.FileInfo> files = crowdin.getFiles(branchId);
-            Map<Long, Directory> dirs = crowdin.getDirectories(branchId);
-            crowdinProjectCache.getFileInfos().put(branch, CrowdinFileUtil.buildFilePaths(files, dirs));
-            crowdinProjectCache.getDirs().put(branch, CrowdinFileUtil.buildDirPaths(dirs));
+        CrowdinFileTree fileTree = join(fileTreeFuture);
+        if (fileTree != null) {
+            crowdinProjectCache.getBranchFiles().put(crowdinProjectCache.getBranches().get(branchName), fileTree);
             outdatedBranches.remove(branchName);
         }
+        if (!requestTimes.isEmpty()) {
+            NotificationUtil.logDebugMessage(crowdin.getIdeProject(), String.format(MESSAGES_BUNDLE.getString("messages.debug.cache_loaded"),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), requestTimes, crowdinProjectCache.getBranchFiles()));
+        }
         return crowdinProjectCache;
     }
 
+    private static <T> CompletableFuture<T> timedAsync(String request, Map<String, Long> requestTimes, Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> {
+            long started = System.nanoTime();
+            try {
+                return supplier.get();
+            } finally {
+                requestTimes.put(request, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+        }, AppExecutorUtil.getAppExecutorService());
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     public synchronized static void outdateBranch(String branchName) {
         outdated = true;
         outdatedBranches.add(branchName);
@@ -12,6 +12,7 @@ public class CrowdinProperties {
     private String apiToken;
     private String baseUrl;
     private boolean disabledBranches;
+    private List<String> uploadBranches;
     private boolean preserveHierarchy;
     private List<FileBean> files;
     private boolean debug;
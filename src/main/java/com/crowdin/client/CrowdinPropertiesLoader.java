@@ -1,5 +1,6 @@
 package com.crowdin.client;
 
+import com.crowdin.util.CrowdinFileUtil;
 import com.crowdin.util.FileUtil;
 import com.crowdin.util.PropertyUtil;
 import com.crowdin.util.Util;
@@ -91,6 +92,16 @@ public class CrowdinPropertiesLoader {
             } else {
                 crowdinProperties.setDisabledBranches(DISABLE_BRANCHES_DEFAULT);
             }
+            List<String> uploadBranches = parsePropertyToList(properties.getProperty(PROPERTY_UPLOAD_BRANCHES));
+            if (uploadBranches != null) {
+                if (crowdinProperties.isDisabledBranches()) {
+                    errors.add(String.format(MESSAGES_BUNDLE.getString("errors.config.upload_branches_with_disabled_branches"), PROPERTY_UPLOAD_BRANCHES, PROPERTY_DISABLE_BRANCHES));
+                } else if (!uploadBranches.stream().allMatch(CrowdinFileUtil::isValidBranchName)) {
+                    errors.add(String.format(MESSAGES_BUNDLE.getString("errors.config.invalid_branch_names"), PROPERTY_UPLOAD_BRANCHES));
+                } else {
+                    crowdinProperties.setUploadBranches(uploadBranches.stream().distinct().collect(Collectors.toList()));
+                }
+            }
             String preserveHierarchy = properties.getProperty(PROPERTY_PRESERVE_HIERARCHY);
             if (preserveHierarchy != null) {
                 crowdinProperties.setPreserveHierarchy(Boolean.parseBoolean(preserveHierarchy));
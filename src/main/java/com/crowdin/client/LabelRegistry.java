@@ -0,0 +1,126 @@
+package com.crowdin.client;
+
+import com.crowdin.client.labels.model.Label;
+import com.crowdin.util.SingleFlight;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ids of project labels by title, loaded once per TTL instead of on every upload.
+ * Missing labels are created concurrently, and concurrent requests for the same label share one creation.
+ */
+public class LabelRegistry {
+
+    private static final long DEFAULT_TTL = TimeUnit.MINUTES.toNanos(5);
+    private static final String LOAD_KEY = "";
+
+    private final long ttl;
+    private final SingleFlight<String, Map<String, Long>> loads = new SingleFlight<>();
+    private final SingleFlight<String, Long> creations = new SingleFlight<>();
+
+    private volatile Map<String, Long> labels;
+    private volatile long loadedAt;
+
+    public LabelRegistry() {
+        this(DEFAULT_TTL);
+    }
+
+    LabelRegistry(long ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * @param titles label titles, created if they don't exist
+     * @return ids of the labels by title
+     */
+    public Map<String, Long> resolve(Crowdin crowdin, Collection<String> titles) {
+        return this.resolve(titles, crowdin::listLabels, title -> crowdin.addLabel(RequestBuilder.addLabel(title)), AppExecutorUtil.getAppExecutorService());
+    }
+
+    Map<String, Long> resolve(Collection<String> titles, Supplier<List<Label>> loader, Function<String, Label> creator, Executor executor) {
+        Map<String, Long> resolved = new HashMap<>(this.load(loader, false));
+        Set<String> missing = new LinkedHashSet<>();
+        for (String title : titles) {
+            if (!resolved.containsKey(title)) {
+                missing.add(title);
+            }
+        }
+        Map<String, CompletableFuture<Long>> created = new HashMap<>();
+        for (String title : missing) {
+            created.put(title, CompletableFuture.supplyAsync(() -> this.create(title, loader, creator), executor));
+        }
+        try {
+            for (Map.Entry<String, CompletableFuture<Long>> creation : created.entrySet()) {
+                resolved.put(creation.getKey(), creation.getValue().join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return resolved;
+    }
+
+    /**
+     * @return ids of the existing labels by title, without creating the missing ones
+     */
+    public Map<String, Long> known(Crowdin crowdin) {
+        return Collections.unmodifiableMap(this.load(crowdin::listLabels, false));
+    }
+
+    public void invalidate() {
+        this.labels = null;
+    }
+
+    private Map<String, Long> load(Supplier<List<Label>> loader, boolean reload) {
+        Map<String, Long> current = labels;
+        if (current != null && !reload && System.nanoTime() - loadedAt < ttl) {
+            return current;
+        }
+        return loads.execute(LOAD_KEY, () -> {
+            Map<String, Long> loaded = new ConcurrentHashMap<>();
+            for (Label label : loader.get()) {
+                loaded.put(label.getTitle(), label.getId());
+            }
+            this.loadedAt = System.nanoTime();
+            this.labels = loaded;
+            return loaded;
+        });
+    }
+
+    private Long create(String title, Supplier<List<Label>> loader, Function<String, Label> creator) {
+        return creations.execute(title, () -> {
+            Map<String, Long> current = this.load(loader, false);
+            Long id = current.get(title);
+            if (id != null) {
+                return id;
+            }
+            try {
+                id = creator.apply(title).getId();
+            } catch (RuntimeException e) {
+//                the label could be created by someone else since the labels were loaded
+                id = this.load(loader, true).get(title);
+                if (id == null) {
+                    throw e;
+                }
+            }
+            current.put(title, id);
+            return id;
+        });
+    }
+}
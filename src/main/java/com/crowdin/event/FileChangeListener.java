@@ -4,10 +4,12 @@ import com.crowdin.client.*;
 import com.crowdin.client.sourcefiles.model.AddBranchRequest;
 import com.crowdin.client.sourcefiles.model.Branch;
 import com.crowdin.logic.BranchLogic;
+import com.crowdin.logic.SourceFilesIndex;
 import com.crowdin.logic.SourceLogic;
 import com.crowdin.util.*;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
@@ -80,17 +82,15 @@ public class FileChangeListener implements Disposable, BulkFileListener {
                         CrowdinProjectCacheProvider.getInstance(crowdin, branchName, false);
                     indicator.checkCanceled();
 
-                    Map<FileBean, List<VirtualFile>> allSources = new HashMap<>();
-                    for (FileBean fileBean : properties.getFiles()) {
-                        allSources.put(fileBean, FileUtil.getSourceFilesRec(FileUtil.getProjectBaseDir(project), fileBean.getSource()));
-                    }
+                    VirtualFile root = FileUtil.getProjectBaseDir(project);
+                    SourceFilesIndex sourceFilesIndex = ServiceManager.getService(project, SourceFilesIndex.class);
 
                     Map<FileBean, List<VirtualFile>> changedSources = new HashMap<>();
                     for (VFileEvent event : events) {
                         VirtualFile eventFile = event.getFile();
                         if (eventFile != null) {
                             for (FileBean fileBean : properties.getFiles()) {
-                                if (allSources.get(fileBean).contains(eventFile)) {
+                                if (sourceFilesIndex.isSourceFile(root, fileBean.getSource(), eventFile)) {
                                     changedSources.putIfAbsent(fileBean, new ArrayList<>());
                                     changedSources.get(fileBean).add(eventFile);
                                     break;
@@ -113,7 +113,7 @@ public class FileChangeListener implements Disposable, BulkFileListener {
                         .collect(Collectors.joining(","));
                     indicator.setText(String.format(MESSAGES_BUNDLE.getString("messages.uploading_file_s"), text, changedSources.size() == 1 ? "" : "s"));
 
-                    SourceLogic.processSources(project, FileUtil.getProjectBaseDir(project), crowdin, crowdinProjectCache, branch, properties.isPreserveHierarchy(), changedSources);
+                    SourceLogic.processSources(project, root, crowdin, crowdinProjectCache, branch, properties.isPreserveHierarchy(), changedSources, false, false);
 
                     CrowdinProjectCacheProvider.outdateBranch(branchName);
                 } catch (ProcessCanceledException e) {
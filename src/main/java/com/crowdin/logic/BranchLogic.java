@@ -43,6 +43,13 @@ public class BranchLogic {
         if (branchName == null) {
             this.acquireBranchName(true);
         }
+        return this.getBranch(projectCache, branchName, createIfNotExists);
+    }
+
+    /**
+     * @param branchName name of the Crowdin branch, which may differ from the current git branch
+     */
+    public Branch getBranch(CrowdinProjectCacheProvider.CrowdinProjectCache projectCache, String branchName, boolean createIfNotExists) {
         Branch branch = projectCache.getBranches().get(branchName);
         if (branch == null && StringUtils.isNotEmpty(branchName)) {
             if (createIfNotExists) {
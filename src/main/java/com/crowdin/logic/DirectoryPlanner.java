@@ -0,0 +1,113 @@
+package com.crowdin.logic;
+
+import com.crowdin.client.Crowdin;
+import com.crowdin.client.CrowdinFileTree;
+import com.crowdin.client.sourcefiles.model.AddDirectoryRequest;
+import com.crowdin.client.sourcefiles.model.Directory;
+import com.crowdin.util.CrowdinPath;
+import com.crowdin.util.NotificationUtil;
+import com.intellij.openapi.progress.ProgressIndicator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.crowdin.Constants.MESSAGES_BUNDLE;
+
+/**
+ * Creates the missing Crowdin directories of a whole upload before the files are uploaded.
+ * Directories are created breadth-first: all directories of one depth are created concurrently,
+ * once their parents from the previous depth exist.
+ */
+public class DirectoryPlanner {
+
+    private final Crowdin crowdin;
+    private final CrowdinFileTree fileTree;
+    private final Long branchId;
+
+    public DirectoryPlanner(Crowdin crowdin, CrowdinFileTree fileTree, Long branchId) {
+        this.crowdin = crowdin;
+        this.fileTree = fileTree;
+        this.branchId = branchId;
+    }
+
+    /**
+     * @param directories directories that should exist, in any order and with duplicates
+     * @return missing directories and their missing ancestors, grouped by depth in ascending order
+     */
+    public static List<List<CrowdinPath>> plan(CrowdinFileTree fileTree, Collection<CrowdinPath> directories) {
+        List<TreeSet<CrowdinPath>> levels = new ArrayList<>();
+        for (CrowdinPath directory : directories) {
+            for (CrowdinPath path = directory; !path.isRoot() && fileTree.getDirectory(path) == null; path = path.getParent()) {
+                while (levels.size() < path.getSegmentCount()) {
+                    levels.add(new TreeSet<>());
+                }
+                if (!levels.get(path.getSegmentCount() - 1).add(path)) {
+                    break;
+                }
+            }
+        }
+        List<List<CrowdinPath>> plan = new ArrayList<>();
+        for (TreeSet<CrowdinPath> level : levels) {
+            if (!level.isEmpty()) {
+                plan.add(new ArrayList<>(level));
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Creates the planned directories and adds them to the file tree.
+     * A directory that can't be created is logged and its subdirectories are left out,
+     * so the uploads of their files fail with their own errors.
+     *
+     * @return number of created directories
+     */
+    public int create(List<List<CrowdinPath>> plan, Executor executor, ProgressIndicator indicator) {
+        int created = 0;
+        for (List<CrowdinPath> level : plan) {
+            if (indicator != null && indicator.isCanceled()) {
+                break;
+            }
+            List<CompletableFuture<Boolean>> creations = new ArrayList<>(level.size());
+            for (CrowdinPath path : level) {
+                creations.add(CompletableFuture.supplyAsync(() -> this.createDirectory(path), executor));
+            }
+            for (CompletableFuture<Boolean> creation : creations) {
+                if (creation.join()) {
+                    created++;
+                }
+            }
+        }
+        return created;
+    }
+
+    private boolean createDirectory(CrowdinPath path) {
+        CrowdinPath parentPath = path.getParent();
+        Directory parent = null;
+        if (!parentPath.isRoot()) {
+            parent = fileTree.getDirectory(parentPath);
+            if (parent == null) {
+                return false;
+            }
+        }
+        try {
+            AddDirectoryRequest addDirectoryRequest = new AddDirectoryRequest();
+            if (parent != null) {
+                addDirectoryRequest.setDirectoryId(parent.getId());
+            } else {
+                addDirectoryRequest.setBranchId(branchId);
+            }
+            addDirectoryRequest.setName(path.getName());
+            fileTree.addDirectory(crowdin.addDirectory(addDirectoryRequest));
+            return true;
+        } catch (Exception e) {
+            NotificationUtil.logDebugMessage(crowdin.getIdeProject(),
+                String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_sources.create_directory_failed"), path, e.getMessage()));
+            return false;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.crowdin.util.CrowdinFileUtil;
 import com.crowdin.util.FileUtil;
 import com.crowdin.util.NotificationUtil;
 import com.crowdin.util.PlaceholderUtil;
+import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.vfs.VirtualFile;
@@ -24,6 +25,7 @@ import org.apache.commons.lang.StringUtils;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -43,6 +45,8 @@ public class DownloadTranslationsLogic {
     private final VirtualFile root;
     private final CrowdinProjectCacheProvider.CrowdinProjectCache projectCache;
     private final Branch branch;
+    /** Languages of the found translations by their files in the archive, recorded in the manifest once the files are extracted */
+    private final Map<File, String> targetLanguages = new HashMap<>();
 
     public DownloadTranslationsLogic(
         Project project, Crowdin crowdin, CrowdinProperties properties, VirtualFile root, CrowdinProjectCacheProvider.CrowdinProjectCache projectCache, Branch branch
@@ -116,16 +120,16 @@ public class DownloadTranslationsLogic {
 
     public List<Pair<File, File>> findAllTranslations(String tempDir, List<java.io.File> files) {
         List<Pair<File, File>> targets = new ArrayList<>();
+        Map<FileBean, List<VirtualFile>> sources = ServiceManager.getService(project, SourceFilesIndex.class).getSourceFiles(root, properties.getFiles());
         for (FileBean fileBean : properties.getFiles()) {
-            for (VirtualFile source : FileUtil.getSourceFilesRec(root, fileBean.getSource())) {
+            for (VirtualFile source : sources.get(fileBean)) {
                 VirtualFile pathToPattern = FileUtil.getBaseDir(source, fileBean.getSource());
                 String sourceRelativePath = StringUtils.removeStart(source.getPath(), root.getPath());
                 String relativePathToPattern = (properties.isPreserveHierarchy())
                     ? File.separator + FileUtil.findRelativePath(root, pathToPattern)
                     : File.separator;
                 Map<Language, String> translationPaths =
-                    PlaceholderUtil.buildTranslationPatterns(sourceRelativePath, fileBean.getTranslation(),
-                        projectCache.getProjectLanguages(), projectCache.getLanguageMapping());
+                    PlaceholderUtil.buildTranslationPatterns(sourceRelativePath, fileBean.getTranslation(), projectCache.getLanguagePlaceholders());
                 for (Map.Entry<Language, String> translationPathEntry : translationPaths.entrySet()) {
                     File fromFile = new File(FileUtil.joinPaths(tempDir, relativePathToPattern, translationPathEntry.getValue()));
                     File toFile = new File(FileUtil.joinPaths(pathToPattern.getPath(), translationPathEntry.getValue()));
@@ -137,18 +141,40 @@ public class DownloadTranslationsLogic {
                     NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.download.file_found"),
                         FileUtil.joinPaths(relativePathToPattern, translationPathEntry.getValue())));
                     targets.add(Pair.create(fromFile, toFile));
+                    targetLanguages.put(fromFile, translationPathEntry.getKey().getId());
                 }
             }
         }
         return targets;
     }
 
+    /**
+     * Records the extracted content of the translation file, so it isn't uploaded back unless it's changed locally
+     */
+    private void recordFingerprint(TranslationManifest manifest, String manifestKey, File toFile, String languageId) {
+        try {
+            manifest.record(manifestKey, TranslationManifest.relativePath(root, toFile), languageId, SourceManifest.fingerprint(Files.readAllBytes(toFile.toPath())));
+        } catch (IOException e) {
+            NotificationUtil.logErrorMessage(project, e);
+        }
+    }
+
+    /**
+     * Moves the translations in place. Only the translations that were written are recorded in the manifest
+     */
     public void extractTranslations(List<Pair<File, File>> targets) {
+        TranslationManifest manifest = ServiceManager.getService(project, TranslationManifest.class);
+        String manifestKey = SourceManifest.branchKey(crowdin.getProjectId(), (branch != null) ? branch.getId() : null);
         for (Pair<File, File> target : targets) {
             File fromFile = target.first;
             File toFile = target.second;
             toFile.getParentFile().mkdirs();
-            if (!fromFile.renameTo(toFile) && toFile.delete() && !fromFile.renameTo(toFile)) {
+            if (fromFile.renameTo(toFile) || (toFile.delete() && fromFile.renameTo(toFile))) {
+                String languageId = targetLanguages.get(fromFile);
+                if (languageId != null) {
+                    this.recordFingerprint(manifest, manifestKey, toFile, languageId);
+                }
+            } else {
                 NotificationUtil.showWarningMessage(project, String.format(MESSAGES_BUNDLE.getString("errors.extract_file"), toFile));
             }
         }
@@ -174,9 +200,8 @@ public class DownloadTranslationsLogic {
     public void notifyAboutOmittedFiles(List<Pair<File, File>> targets, List<java.io.File> files, String tempDir) {
         Map<String, String> allCrowdinTranslationsWithSources = CrowdinFileUtil.buildAllProjectTranslationsWithSources(
             new ArrayList<>(projectCache.getFiles(branch).values()),
-            CrowdinFileUtil.revDirPaths(projectCache.getDirs().getOrDefault(branch, new HashMap<>())),
-            projectCache.getProjectLanguages(),
-            projectCache.getLanguageMapping()
+            CrowdinFileUtil.revDirPaths(projectCache.getDirs(branch)),
+            projectCache.getLanguagePlaceholders()
         );
 
         List<File> foundTranslations = targets.stream().map(p -> p.getFirst()).collect(Collectors.toList());
@@ -0,0 +1,261 @@
+package com.crowdin.logic;
+
+import com.crowdin.util.NotificationUtil;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.project.Project;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static com.crowdin.Constants.MESSAGES_BUNDLE;
+
+/**
+ * Journal of the finished steps of one bulk operation, per project and branch, so an interrupted operation is resumed
+ * by the next run instead of starting from scratch.
+ * <p>
+ * Every step is appended to the journal file and forced to the disk before the operation continues, so a crash loses
+ * at most the step in progress. Lines are checksummed, a partially written line is ignored on load.
+ * The journal is deleted once the operation finishes without failures, and journals older than a day are discarded,
+ * as the state in Crowdin may have changed since then.
+ * <p>
+ * A journal file is held by one run at a time. A concurrent run of the same operation for the same branch
+ * gets a journal kept in memory only, so it neither resumes nor deletes the steps of the other run.
+ */
+public class OperationJournal {
+
+    public enum Step {
+        /** File content added to the Crowdin storage, the value is the storage id */
+        STORAGE,
+        /** Source file added or updated in Crowdin */
+        SOURCE,
+        /** Translation file imported to Crowdin */
+        TRANSLATION
+    }
+
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(1);
+    /** Crowdin removes storages after a while, so older storages are uploaded again */
+    private static final long STORAGE_MAX_AGE = TimeUnit.HOURS.toMillis(1);
+    private static final String SEPARATOR = "\t";
+    /** Journal files held by the running operations */
+    private static final Set<Path> OPENED = ConcurrentHashMap.newKeySet();
+
+    /** Null if the journal is kept in memory only */
+    private final Path file;
+    /** The journal holds the file, until it's closed */
+    private boolean held;
+    private final Map<String, Record> records = new ConcurrentHashMap<>();
+    private FileChannel channel;
+    /** The last line was written partially, so the next line should start on a new line */
+    private boolean partialTail;
+
+    OperationJournal(Path file) {
+        this(file, false);
+    }
+
+    private OperationJournal(Path file, boolean held) {
+        this.file = file;
+        this.held = held;
+        this.load();
+    }
+
+    /**
+     * @param operation name of the bulk operation, like 'upload-sources'
+     * @param branchKey key from {@link SourceManifest#branchKey}
+     * @return journal of the operation, kept in memory only if another run of the operation holds the journal file
+     */
+    public static OperationJournal open(Project project, String operation, String branchKey) {
+        Path file = Paths.get(PathManager.getSystemPath(), "crowdin", "journals", project.getLocationHash(),
+            operation + "-" + branchKey.replace(':', '-') + ".journal");
+        OperationJournal journal = OperationJournal.open(file);
+        if (journal.file == null) {
+            NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.operation_in_progress"), operation));
+        } else if (journal.size() > 0) {
+            NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.resume_operation"), journal.size()));
+        }
+        return journal;
+    }
+
+    /**
+     * @return journal holding the file until it's closed, or a journal kept in memory only if the file is held by another journal
+     */
+    static OperationJournal open(Path file) {
+        if (!OPENED.add(file)) {
+            return OperationJournal.inMemory();
+        }
+        try {
+            return new OperationJournal(file, true);
+        } catch (RuntimeException e) {
+            OPENED.remove(file);
+            throw e;
+        }
+    }
+
+    /**
+     * @return journal that is not stored, for the operations that are not resumed, like uploads of the changed files
+     */
+    public static OperationJournal inMemory() {
+        return new OperationJournal(null, false);
+    }
+
+    /**
+     * @return true if the step was finished for the same content
+     */
+    public boolean isDone(Step step, String key, String fingerprint) {
+        Record record = records.get(recordKey(step, key));
+        return record != null && record.fingerprint.equals(fingerprint);
+    }
+
+    /**
+     * @return id of the storage added for the same content, if it's not expired yet
+     */
+    public Long getStorageId(String key, String fingerprint) {
+        Record record = records.get(recordKey(Step.STORAGE, key));
+        if (record == null || !record.fingerprint.equals(fingerprint) || System.currentTimeMillis() - record.timestamp > STORAGE_MAX_AGE) {
+            return null;
+        }
+        return Long.valueOf(record.value);
+    }
+
+    /**
+     * Appends the finished step and forces it to the disk
+     */
+    public synchronized void record(Step step, String key, String fingerprint, String value) {
+        Record record = new Record(System.currentTimeMillis(), step, key, fingerprint, (value != null) ? value : "");
+        if (file == null) {
+            records.put(recordKey(step, key), record);
+            return;
+        }
+        try {
+            if (channel == null) {
+                Files.createDirectories(file.getParent());
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            ByteBuffer line = ByteBuffer.wrap(((partialTail) ? "\n" + record.format() : record.format()).getBytes(StandardCharsets.UTF_8));
+            partialTail = false;
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't write the operation journal '" + file + "'", e);
+        }
+        records.put(recordKey(step, key), record);
+    }
+
+    /**
+     * Closes the journal. If the operation finished without failures, the journal is deleted, otherwise it's kept for the next run
+     */
+    public synchronized void close(boolean finished) {
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            if (finished) {
+                records.clear();
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't close the operation journal '" + file + "'", e);
+        } finally {
+            if (held) {
+                OPENED.remove(file);
+                held = false;
+            }
+        }
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    private void load() {
+        try {
+            if (file == null || !Files.exists(file)) {
+                return;
+            }
+            if (System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() > MAX_AGE) {
+                Files.delete(file);
+                return;
+            }
+            byte[] content = Files.readAllBytes(file);
+            partialTail = content.length > 0 && content[content.length - 1] != '\n';
+            for (String line : new String(content, StandardCharsets.UTF_8).split("\n")) {
+                Record record = Record.parse(line);
+                if (record != null) {
+                    records.put(recordKey(record.step, record.key), record);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't read the operation journal '" + file + "'", e);
+        }
+    }
+
+    private static String recordKey(Step step, String key) {
+        return step.name() + SEPARATOR + key;
+    }
+
+    private static final class Record {
+
+        private final long timestamp;
+        private final Step step;
+        private final String key;
+        private final String fingerprint;
+        private final String value;
+
+        private Record(long timestamp, Step step, String key, String fingerprint, String value) {
+            this.timestamp = timestamp;
+            this.step = step;
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.value = value;
+        }
+
+        private String format() {
+            String content = String.join(SEPARATOR, String.valueOf(timestamp), step.name(), key, fingerprint, value);
+            return checksum(content) + SEPARATOR + content + "\n";
+        }
+
+        /**
+         * @return parsed record, null if the line is damaged
+         */
+        private static Record parse(String line) {
+            int checksumEnd = line.indexOf(SEPARATOR);
+            if (checksumEnd == -1) {
+                return null;
+            }
+            String content = line.substring(checksumEnd + 1);
+            if (!line.substring(0, checksumEnd).equals(checksum(content))) {
+                return null;
+            }
+            String[] parts = content.split(SEPARATOR, -1);
+            if (parts.length != 5) {
+                return null;
+            }
+            try {
+                return new Record(Long.parseLong(parts[0]), Step.valueOf(parts[1]), parts[2], parts[3], parts[4]);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private static String checksum(String content) {
+            CRC32 crc = new CRC32();
+            crc.update(content.getBytes(StandardCharsets.UTF_8));
+            return Long.toHexString(crc.getValue());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.crowdin.logic;
+
+import com.crowdin.util.GlobMatcher;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.vfs.VirtualFile;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Finds local files of several source patterns in one walk of the project tree.
+ * Every directory is listed once and checked against all patterns that can still match inside of it,
+ * subdirectories are walked in parallel on the fork-join pool.
+ * Directories reached only through wildcards are skipped if they are excluded; directories named in a pattern are always entered.
+ */
+public class SourceDiscovery {
+
+    private final List<GlobMatcher> matchers;
+    private final Predicate<VirtualFile> excluded;
+
+    private final AtomicLongArray matchingNanos;
+    private final AtomicLongArray visitedDirectories;
+    private final AtomicInteger skippedDirectories = new AtomicInteger();
+
+    private SourceDiscovery(List<String> patterns, Predicate<VirtualFile> excluded) {
+        this.matchers = patterns.stream().map(GlobMatcher::compile).collect(Collectors.toList());
+        this.excluded = excluded;
+        this.matchingNanos = new AtomicLongArray(patterns.size());
+        this.visitedDirectories = new AtomicLongArray(patterns.size());
+    }
+
+    /**
+     * @param root directory the patterns are relative to
+     * @param patterns source patterns
+     * @param excluded directories that should not be walked through wildcards
+     * @return files of every pattern, in the order of patterns
+     */
+    public static Result discover(VirtualFile root, List<String> patterns, Predicate<VirtualFile> excluded) {
+        SourceDiscovery discovery = new SourceDiscovery(patterns, excluded);
+        long start = System.nanoTime();
+        long[] states = new long[patterns.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = discovery.matchers.get(i).initialState();
+        }
+        List<List<VirtualFile>> files = ForkJoinPool.commonPool().invoke(discovery.new DirectoryTask(root, states));
+
+        Result result = new Result();
+        result.setPatterns(patterns);
+        result.setFiles(files);
+        result.setWallNanos(System.nanoTime() - start);
+        result.setSkippedDirectories(discovery.skippedDirectories.get());
+        result.setMatchingNanos(new long[patterns.size()]);
+        result.setVisitedDirectories(new long[patterns.size()]);
+        for (int i = 0; i < patterns.size(); i++) {
+            result.getMatchingNanos()[i] = discovery.matchingNanos.get(i);
+            result.getVisitedDirectories()[i] = discovery.visitedDirectories.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Applies the rule of the walk to a single file, like a file created after the walk
+     * @param excluded directories that should not be walked through wildcards
+     * @return true if the walk from the root would find the file for the pattern
+     */
+    public static boolean matches(VirtualFile root, String pattern, VirtualFile file, Predicate<VirtualFile> excluded) {
+        if (file.isDirectory()) {
+            return false;
+        }
+        List<VirtualFile> dirs = new ArrayList<>();
+        for (VirtualFile dir = file.getParent(); !root.equals(dir); dir = dir.getParent()) {
+            if (dir == null) {
+                return false;
+            }
+            dirs.add(dir);
+        }
+        GlobMatcher matcher = GlobMatcher.compile(pattern);
+        long state = matcher.initialState();
+        for (int i = dirs.size() - 1; i >= 0 && state != 0; i--) {
+            VirtualFile dir = dirs.get(i);
+            long next = matcher.enterDirectory(state, dir.getName());
+            if (SourceDiscovery.checksExclusion(matcher, state, dir.getName(), next) && excluded.test(dir)) {
+                next = 0;
+            }
+            state = next;
+        }
+        return state != 0 && matcher.acceptsFile(state, file.getName());
+    }
+
+    /**
+     * @return order of the files found by the walk: files of a directory in the order of its children, followed by the files
+     * of its subdirectories in the order of the subdirectories
+     */
+    public static Comparator<VirtualFile> walkOrder() {
+        Map<VirtualFile, Integer> indices = new HashMap<>();
+        return (first, second) -> {
+            if (first.equals(second)) {
+                return 0;
+            }
+            List<VirtualFile> firstPath = SourceDiscovery.pathOf(first);
+            List<VirtualFile> secondPath = SourceDiscovery.pathOf(second);
+            int i = 0;
+            while (i < firstPath.size() - 1 && i < secondPath.size() - 1 && firstPath.get(i).equals(secondPath.get(i))) {
+                i++;
+            }
+            VirtualFile firstChild = firstPath.get(i);
+            VirtualFile secondChild = secondPath.get(i);
+            if (firstChild.isDirectory() != secondChild.isDirectory()) {
+                return (firstChild.isDirectory()) ? 1 : -1;
+            }
+            return Integer.compare(SourceDiscovery.indexOf(firstChild, indices), SourceDiscovery.indexOf(secondChild, indices));
+        };
+    }
+
+    /**
+     * @return the file and its parents, starting from the topmost one
+     */
+    private static List<VirtualFile> pathOf(VirtualFile file) {
+        List<VirtualFile> path = new ArrayList<>();
+        for (VirtualFile current = file; current != null; current = current.getParent()) {
+            path.add(current);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private static int indexOf(VirtualFile file, Map<VirtualFile, Integer> indices) {
+        Integer index = indices.get(file);
+        if (index == null) {
+            VirtualFile[] children = file.getParent().getChildren();
+            for (int i = 0; i < children.length; i++) {
+                indices.put(children[i], i);
+            }
+            index = indices.getOrDefault(file, children.length);
+        }
+        return index;
+    }
+
+    /**
+     * @param next state inside of the directory
+     * @return true if the directory is entered only through wildcards, so it's skipped if it's excluded
+     */
+    private static boolean checksExclusion(GlobMatcher matcher, long state, String name, long next) {
+        return next != 0 && !matcher.namesDirectory(state, name);
+    }
+
+    private class DirectoryTask extends RecursiveTask<List<List<VirtualFile>>> {
+
+        private final VirtualFile dir;
+        private final long[] states;
+
+        private DirectoryTask(VirtualFile dir, long[] states) {
+            this.dir = dir;
+            this.states = states;
+        }
+
+        @Override
+        protected List<List<VirtualFile>> compute() {
+            VirtualFile[] children = ReadAction.compute(dir::getChildren);
+            List<List<VirtualFile>> found = new ArrayList<>(states.length);
+            long[][] childStates = new long[children.length][];
+            Boolean[] excludedChildren = new Boolean[children.length];
+            for (int p = 0; p < states.length; p++) {
+                found.add(new ArrayList<>());
+                if (states[p] == 0) {
+                    continue;
+                }
+                GlobMatcher matcher = matchers.get(p);
+                long start = System.nanoTime();
+                for (int c = 0; c < children.length; c++) {
+                    VirtualFile child = children[c];
+                    if (child.isDirectory()) {
+                        long next = matcher.enterDirectory(states[p], child.getName());
+                        if (SourceDiscovery.checksExclusion(matcher, states[p], child.getName(), next)) {
+                            if (excludedChildren[c] == null) {
+                                excludedChildren[c] = this.isExcluded(child);
+                            }
+                            if (excludedChildren[c]) {
+                                next = 0;
+                            }
+                        }
+                        if (next != 0) {
+                            if (childStates[c] == null) {
+                                childStates[c] = new long[states.length];
+                            }
+                            childStates[c][p] = next;
+                        }
+                    } else if (matcher.acceptsFile(states[p], child.getName())) {
+                        found.get(p).add(child);
+                    }
+                }
+                matchingNanos.addAndGet(p, System.nanoTime() - start);
+                visitedDirectories.incrementAndGet(p);
+            }
+
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            for (int c = 0; c < children.length; c++) {
+                if (childStates[c] != null) {
+                    subtasks.add(new DirectoryTask(children[c], childStates[c]));
+                }
+            }
+            invokeAll(subtasks);
+            for (DirectoryTask subtask : subtasks) {
+                List<List<VirtualFile>> subtaskFound = subtask.join();
+                for (int p = 0; p < states.length; p++) {
+                    found.get(p).addAll(subtaskFound.get(p));
+                }
+            }
+            return found;
+        }
+
+        private boolean isExcluded(VirtualFile child) {
+            boolean isExcluded = ReadAction.compute(() -> excluded.test(child));
+            if (isExcluded) {
+                skippedDirectories.incrementAndGet();
+            }
+            return isExcluded;
+        }
+    }
+
+    @Data
+    public static class Result {
+        private List<String> patterns;
+        private List<List<VirtualFile>> files;
+        private long wallNanos;
+        private int skippedDirectories;
+        private long[] matchingNanos;
+        private long[] visitedDirectories;
+
+        /**
+         * @return per-pattern metrics for the debug log
+         */
+        public String formatMetrics() {
+            List<String> metrics = new ArrayList<>();
+            for (int i = 0; i < patterns.size(); i++) {
+                metrics.add(String.format("'%s': %d files, %d directories, %d ms",
+                    patterns.get(i), files.get(i).size(), visitedDirectories[i], matchingNanos[i] / 1_000_000));
+            }
+            return String.join("; ", metrics);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.crowdin.logic;
+
+import com.crowdin.client.FileBean;
+import com.crowdin.util.FileUtil;
+import com.crowdin.util.GlobMatcher;
+import com.crowdin.util.NotificationUtil;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileTypes.FileTypeManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vcs.changes.ChangeListManager;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.crowdin.Constants.MESSAGES_BUNDLE;
+
+/**
+ * Local source files matched by source patterns. Files of missing patterns ending with a file name are looked up in the file name index,
+ * files of other patterns (and of all patterns in dumb mode) are found together in one walk of the project tree. Then the result is kept up to date from VFS events: created, deleted, moved and renamed files are matched against indexed patterns one by one.
+ * Changes of whole directories drop the patterns that can have files inside of them, so that they are walked again on the next request.
+ * Events outside of the roots and of the directories the patterns can reach are ignored.
+ */
+public class SourceFilesIndex implements Disposable {
+
+    private final Project project;
+    private final Map<Pair<String, String>, Set<VirtualFile>> sources = new HashMap<>();
+    private final Map<Pair<String, String>, VirtualFile> roots = new HashMap<>();
+    /** Patterns being looked up, with the number of concurrent lookups of each */
+    private final Map<Pair<String, String>, Integer> loading = new HashMap<>();
+    private final AtomicLong modificationCount = new AtomicLong();
+    /** Number of event batches that affected patterns being looked up. Lookups that overlapped such a batch are not kept */
+    private long eventsCount;
+
+    public SourceFilesIndex(Project project) {
+        this.project = project;
+        ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                SourceFilesIndex.this.after(events);
+            }
+        });
+    }
+
+    /**
+     * @return files matching the source pattern. Files found by the project walk keep its order, files created later follow them
+     */
+    public List<VirtualFile> getSourceFiles(VirtualFile root, String source) {
+        return this.load(root, Collections.singletonList(source)).get(source);
+    }
+
+    /**
+     * Same as {@link #getSourceFiles(VirtualFile, String)} for every file bean, with one walk for all patterns that are not indexed yet
+     */
+    public Map<FileBean, List<VirtualFile>> getSourceFiles(VirtualFile root, List<FileBean> fileBeans) {
+        List<String> patterns = fileBeans.stream()
+            .map(FileBean::getSource)
+            .distinct()
+            .collect(Collectors.toList());
+        Map<String, List<VirtualFile>> files = this.load(root, patterns);
+        Map<FileBean, List<VirtualFile>> sourceFiles = new LinkedHashMap<>();
+        for (FileBean fileBean : fileBeans) {
+            sourceFiles.put(fileBean, files.get(fileBean.getSource()));
+        }
+        return sourceFiles;
+    }
+
+    public boolean isSourceFile(VirtualFile root, String source, VirtualFile file) {
+        synchronized (this) {
+            Set<VirtualFile> files = sources.get(Pair.of(root.getPath(), source));
+            if (files != null) {
+                return files.contains(file);
+            }
+        }
+        return this.getSourceFiles(root, source).contains(file);
+    }
+
+    /**
+     * @return number of changes applied to the index. Changes whenever any indexed set of files may have changed
+     */
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    private Map<String, List<VirtualFile>> load(VirtualFile root, List<String> patterns) {
+        Map<String, List<VirtualFile>> files = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long loadedAtEvent;
+        synchronized (this) {
+            for (String pattern : patterns) {
+                Set<VirtualFile> indexed = sources.get(Pair.of(root.getPath(), pattern));
+                if (indexed != null) {
+                    files.put(pattern, new ArrayList<>(indexed));
+                } else {
+                    missing.add(pattern);
+                    loading.merge(Pair.of(root.getPath(), pattern), 1, Integer::sum);
+                }
+            }
+            loadedAtEvent = eventsCount;
+        }
+        if (missing.isEmpty()) {
+            return files;
+        }
+
+//        lookups run without the lock: VFS events are delivered under the write action, which waits for the read actions of the lookups
+        Map<String, List<VirtualFile>> found = new HashMap<>();
+        try {
+            List<String> walked = new ArrayList<>();
+            long start = System.nanoTime();
+            for (String pattern : missing) {
+                List<VirtualFile> byFileName = this.findByFileName(root, pattern);
+                if (byFileName != null) {
+                    found.put(pattern, byFileName);
+                } else {
+                    walked.add(pattern);
+                }
+            }
+            if (!found.isEmpty()) {
+                NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.source_file_name_index"),
+                    found.size(), (System.nanoTime() - start) / 1_000_000));
+            }
+            if (!walked.isEmpty()) {
+                SourceDiscovery.Result result = SourceDiscovery.discover(root, walked, this::isExcluded);
+                NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.source_discovery"),
+                    result.getWallNanos() / 1_000_000, result.getSkippedDirectories(), result.formatMetrics()));
+                for (int i = 0; i < walked.size(); i++) {
+                    found.put(walked.get(i), result.getFiles().get(i));
+                }
+            }
+        } finally {
+            synchronized (this) {
+                for (String pattern : missing) {
+                    Pair<String, String> key = Pair.of(root.getPath(), pattern);
+                    loading.computeIfPresent(key, (k, count) -> (count > 1) ? count - 1 : null);
+                    List<VirtualFile> patternFiles = found.get(pattern);
+                    if (patternFiles == null) {
+                        continue;
+                    }
+                    files.put(pattern, patternFiles);
+                    if (loadedAtEvent == eventsCount) {
+                        sources.put(key, new LinkedHashSet<>(patternFiles));
+                        roots.put(key, root);
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Looks up candidates of patterns like '**&#47;values/strings.xml' by their file name and filters them with the rule of the walk,
+     * in the order of the walk. Patterns without wildcards in directories are left to the walk, which reaches the file directly
+     * @return files of the pattern, null if the pattern has to be walked or indexes are not ready
+     */
+    private List<VirtualFile> findByFileName(VirtualFile root, String pattern) {
+        GlobMatcher matcher = GlobMatcher.compile(pattern);
+        String fileName = matcher.getFileName();
+        if (fileName == null || !matcher.hasDirectoryWildcards() || DumbService.isDumb(project)) {
+            return null;
+        }
+        try {
+            return ReadAction.compute(() -> {
+                if (!this.isIndexed(root, matcher)) {
+                    return null;
+                }
+                return FilenameIndex.getVirtualFilesByName(project, fileName, GlobalSearchScopesCore.directoryScope(project, root, true))
+                    .stream()
+                    .filter(file -> SourceDiscovery.matches(root, pattern, file, this::isExcluded))
+                    .sorted(SourceDiscovery.walkOrder())
+                    .collect(Collectors.toList());
+            });
+        } catch (IndexNotReadyException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The file name index has no files outside of the project content, in excluded roots and in ignored directories,
+     * while the walk enters such directories if the pattern names them
+     * @return true if the file name index has all files the walk of the pattern can find
+     */
+    private boolean isIndexed(VirtualFile root, GlobMatcher matcher) {
+        if (!ProjectFileIndex.getInstance(project).isInContent(root)) {
+            return false;
+        }
+        Set<String> directoryNames = matcher.getDirectoryNames();
+        for (String directoryName : directoryNames) {
+            if (FileTypeManager.getInstance().isFileIgnored(directoryName)) {
+                return false;
+            }
+        }
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            for (VirtualFile excludeRoot : ModuleRootManager.getInstance(module).getExcludeRoots()) {
+                if (directoryNames.contains(excludeRoot.getName()) && VfsUtilCore.isAncestor(root, excludeRoot, false)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Excluded directories are not walked through wildcards of patterns: ignored file types, excluded roots and files ignored by VCS
+     */
+    boolean isExcluded(VirtualFile file) {
+        return FileTypeManager.getInstance().isFileIgnored(file)
+            || ProjectFileIndex.getInstance(project).isExcluded(file)
+            || ChangeListManager.getInstance(project).isIgnoredFile(file);
+    }
+
+    private synchronized void after(List<? extends VFileEvent> events) {
+        if (sources.isEmpty() && loading.isEmpty()) {
+            return;
+        }
+        boolean changed = false;
+        boolean loadsChanged = false;
+        for (VFileEvent event : events) {
+            if (event instanceof VFileContentChangeEvent) {
+                continue;
+            }
+            if (event instanceof VFilePropertyChangeEvent
+                    && !VirtualFile.PROP_NAME.equals(((VFilePropertyChangeEvent) event).getPropertyName())) {
+                continue;
+            }
+            List<String> paths = SourceFilesIndex.changedPaths(event);
+            loadsChanged |= loading.keySet().stream().anyMatch(key -> SourceFilesIndex.affects(key, paths));
+            List<Pair<String, String>> affected = sources.keySet().stream()
+                .filter(key -> SourceFilesIndex.affects(key, paths))
+                .collect(Collectors.toList());
+            if (affected.isEmpty()) {
+                continue;
+            }
+            VirtualFile file = (event instanceof VFileCopyEvent)
+                ? ((VFileCopyEvent) event).findCreatedFile()
+                : event.getFile();
+            if (event instanceof VFileDeleteEvent) {
+                for (Pair<String, String> key : affected) {
+                    changed |= sources.get(key).removeIf(sourceFile -> !sourceFile.isValid());
+                }
+            } else if (file == null || file.isDirectory()) {
+                for (Pair<String, String> key : affected) {
+                    sources.remove(key);
+                    roots.remove(key);
+                }
+                changed = true;
+            } else {
+                for (Pair<String, String> key : affected) {
+                    VirtualFile root = roots.get(key);
+                    boolean matches = root.isValid() && SourceDiscovery.matches(root, key.getRight(), file, this::isExcluded);
+                    if (matches) {
+                        changed |= sources.get(key).add(file);
+                    } else {
+                        changed |= sources.get(key).remove(file);
+                    }
+                }
+            }
+        }
+        if (loadsChanged) {
+            eventsCount++;
+        }
+        if (changed) {
+            modificationCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return path of the file of the event, and its previous path if it was moved or renamed
+     */
+    private static List<String> changedPaths(VFileEvent event) {
+        List<String> paths = new ArrayList<>();
+        paths.add(event.getPath());
+        if (event instanceof VFileMoveEvent) {
+            VFileMoveEvent moveEvent = (VFileMoveEvent) event;
+            paths.add(moveEvent.getOldParent().getPath() + "/" + moveEvent.getFile().getName());
+        } else if (event instanceof VFilePropertyChangeEvent && event.getFile().getParent() != null) {
+            paths.add(event.getFile().getParent().getPath() + "/" + ((VFilePropertyChangeEvent) event).getOldValue());
+        }
+        return paths;
+    }
+
+    private static boolean affects(Pair<String, String> key, List<String> paths) {
+        return paths.stream().anyMatch(path -> SourceFilesIndex.affects(key.getLeft(), key.getRight(), path));
+    }
+
+    /**
+     * @param rootPath path of the directory the pattern is relative to
+     * @param path path of a changed file or directory
+     * @return true if the change can affect the files of the pattern: the path is the root or one of its parents,
+     * or it is inside of the root and the pattern can reach it
+     */
+    static boolean affects(String rootPath, String pattern, String path) {
+        if (SourceFilesIndex.isAncestorOrSelf(path, rootPath)) {
+            return true;
+        }
+        if (!SourceFilesIndex.isAncestorOrSelf(rootPath, path)) {
+            return false;
+        }
+        String[] segments = FileUtil.splitPath(FileUtil.noSepAtStart(path.substring(rootPath.length())));
+        GlobMatcher matcher = GlobMatcher.compile(pattern);
+        long state = matcher.initialState();
+        for (int i = 0; i < segments.length - 1 && state != 0; i++) {
+            state = matcher.enterDirectory(state, segments[i]);
+        }
+        String name = segments[segments.length - 1];
+        return state != 0 && (matcher.enterDirectory(state, name) != 0 || matcher.acceptsFile(state, name));
+    }
+
+    private static boolean isAncestorOrSelf(String ancestor, String path) {
+        return path.equals(ancestor) || path.startsWith(ancestor.endsWith("/") ? ancestor : ancestor + "/");
+    }
+
+    @Override
+    public synchronized void dispose() {
+        sources.clear();
+        roots.clear();
+    }
+}
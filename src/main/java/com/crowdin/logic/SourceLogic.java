@@ -1,151 +1,404 @@
 package com.crowdin.logic;
 
 import com.crowdin.client.Crowdin;
+import com.crowdin.client.CrowdinFileTree;
 import com.crowdin.client.CrowdinProjectCacheProvider;
 import com.crowdin.client.FileBean;
+import com.crowdin.client.LabelRegistry;
 import com.crowdin.client.RequestBuilder;
 import com.crowdin.client.core.model.PatchRequest;
-import com.crowdin.client.labels.model.Label;
 import com.crowdin.client.languages.model.Language;
 import com.crowdin.client.sourcefiles.model.*;
+import com.crowdin.util.CrowdinPath;
 import com.crowdin.util.FileUtil;
 import com.crowdin.util.NotificationUtil;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
-import org.apache.commons.lang.StringUtils;
+import com.intellij.util.concurrency.AppExecutorUtil;
 
-import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import static com.crowdin.Constants.MESSAGES_BUNDLE;
 import static com.crowdin.util.FileUtil.joinPaths;
-import static com.crowdin.util.FileUtil.normalizePath;
 import static com.crowdin.util.FileUtil.sepAtStart;
 import static com.crowdin.util.FileUtil.unixPath;
 
 public class SourceLogic {
 
+    /**
+     * Upper bound of concurrent source uploads, shared by all projects
+     */
+    private static final int UPLOAD_THREADS = 8;
+    private static final ExecutorService UPLOAD_EXECUTOR =
+        AppExecutorUtil.createBoundedApplicationPoolExecutor("Crowdin Source Upload", UPLOAD_THREADS);
+    private static final int MAX_DESCRIBED_ENTRIES = 10;
+
     private final VirtualFile root;
     private final Project project;
     private final Crowdin crowdin;
-    private final Map<String, FileInfo> filePaths;
-    private final Map<String, Directory> dirPaths;
-    private final Map<String, Long> labels;
+    private final CrowdinFileTree fileTree;
     private final Long branchId;
+    private final StorageCache storageCache;
+    private final SourceManifest manifest;
+    private final String manifestKey;
+    private final OperationJournal journal;
+    private final boolean force;
+    /** Serializes creation of missing directories, so files with shared new parents don't create them twice */
+    private final Object directoryLock = new Object();
 
     public static void processSources(
         Project project, VirtualFile root,
         Crowdin crowdin, CrowdinProjectCacheProvider.CrowdinProjectCache projectCache,
-        Branch branch, boolean preserveHierarchy, Map<FileBean, List<VirtualFile>> sourcesToUpload
+        Branch branch, boolean preserveHierarchy, Map<FileBean, List<VirtualFile>> sourcesToUpload, boolean force, boolean resumable
+    ) {
+        SourceLogic.processSources(project, root, crowdin, projectCache,
+            Collections.singletonMap(branch, projectCache.getFileTree(branch)), preserveHierarchy, sourcesToUpload, force, resumable);
+    }
+
+    /**
+     * Uploads the sources to several branches. Each file content is sent to the storage once,
+     * and the requests to add or update it are issued for all branches concurrently.
+     *
+     * @param branches file trees of the target branches, by branch. The branch is null if branches are disabled
+     * @param resumable true for the bulk uploads, which keep a journal to resume from if they are interrupted
+     */
+    public static void processSources(
+        Project project, VirtualFile root,
+        Crowdin crowdin, CrowdinProjectCacheProvider.CrowdinProjectCache projectCache,
+        Map<Branch, CrowdinFileTree> branches, boolean preserveHierarchy, Map<FileBean, List<VirtualFile>> sourcesToUpload,
+        boolean force, boolean resumable
+    ) {
+        ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+        StorageCache storageCache = new StorageCache(crowdin);
+        Map<SourceLogic, UploadPlan> plans = new LinkedHashMap<>();
+        Map<SourceLogic, String> failurePrefixes = new HashMap<>();
+        List<OperationJournal> journals = new ArrayList<>();
+        UploadSummary summary = new UploadSummary();
+        boolean finished = false;
+        try {
+            for (Map.Entry<Branch, CrowdinFileTree> branch : branches.entrySet()) {
+                Long branchId = (branch.getKey() != null) ? branch.getKey().getId() : null;
+                OperationJournal journal = (resumable)
+                    ? OperationJournal.open(project, "upload-sources", SourceManifest.branchKey(crowdin.getProjectId(), branchId))
+                    : OperationJournal.inMemory();
+                journals.add(journal);
+                SourceLogic sourceLogic = new SourceLogic(root, project, crowdin, branch.getValue(), branchId, storageCache, journal, force);
+                UploadPlan plan = SourceLogic.planSources(sourceLogic, crowdin, projectCache, preserveHierarchy, sourcesToUpload);
+                NotificationUtil.logDebugMessage(project, SourceLogic.describePlan(plan));
+                ProgressManager.checkCanceled();
+                plans.put(sourceLogic, plan);
+                failurePrefixes.put(sourceLogic, (branches.size() > 1 && branch.getKey() != null) ? branch.getKey().getName() + ": " : "");
+            }
+
+            Map<String, Long> labels = SourceLogic.createLabels(crowdin, projectCache.getLabels(), plans.values());
+            for (Map.Entry<SourceLogic, UploadPlan> plan : plans.entrySet()) {
+                plan.getKey().createMissingDirectories(plan.getValue(), indicator);
+                ProgressManager.checkCanceled();
+            }
+
+            List<CompletableFuture<Void>> uploads = new ArrayList<>();
+            for (Map.Entry<SourceLogic, UploadPlan> plan : plans.entrySet()) {
+                SourceLogic sourceLogic = plan.getKey();
+                String failurePrefix = failurePrefixes.get(sourceLogic);
+                for (String failure : plan.getValue().getFailures()) {
+                    summary.recordFailure(failurePrefix + failure);
+                }
+                for (UploadPlan.Entry entry : plan.getValue().getEntries()) {
+                    String outputName = FileUtil.noSepAtStart(entry.getPath().toOsPath());
+                    if (entry.getAction() == UploadPlan.Action.SKIP) {
+                        summary.record(sourceLogic.uploadSource(entry, labels), outputName);
+                        continue;
+                    }
+                    uploads.add(CompletableFuture.runAsync(() -> {
+                        if (indicator != null && indicator.isCanceled()) {
+                            return;
+                        }
+                        try {
+                            summary.record(sourceLogic.uploadSource(entry, labels), outputName);
+                        } catch (Exception e) {
+                            NotificationUtil.logErrorMessage(project, e);
+                            summary.recordFailure(failurePrefix + e.getMessage());
+                        }
+                    }, UPLOAD_EXECUTOR));
+                }
+            }
+            CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).join();
+            finished = summary.getFailed() == 0 && (indicator == null || !indicator.isCanceled());
+        } finally {
+            for (OperationJournal journal : journals) {
+                journal.close(finished);
+            }
+        }
+        ProgressManager.checkCanceled();
+        storageCache.logStats(project);
+        SourceLogic.notifySummary(project, summary);
+    }
+
+    /**
+     * Reports the outcome of a single file by its name, and the counts of the outcomes otherwise
+     */
+    private static void notifySummary(Project project, UploadSummary summary) {
+        String singleFile = summary.getSingleFile();
+        if (singleFile != null) {
+            String message = (summary.getAdded() > 0) ? "messages.source_uploaded"
+                : (summary.getUpdated() > 0) ? "messages.source_updated"
+                : "messages.source_unchanged";
+            NotificationUtil.showInformationMessage(project, String.format(MESSAGES_BUNDLE.getString(message), singleFile));
+            return;
+        }
+        if (summary.getTotal() == 1 && summary.getFailed() == 1) {
+            NotificationUtil.showErrorMessage(project, summary.formatFailures());
+        } else if (summary.getFailed() > 0) {
+            NotificationUtil.showErrorMessage(project, String.format(MESSAGES_BUNDLE.getString("errors.upload_sources"),
+                summary.getFailed(), summary.getTotal(), summary.formatFailures()));
+        }
+        if (summary.getAdded() + summary.getUpdated() > 0) {
+            NotificationUtil.showInformationMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.success.upload_sources"),
+                summary.getAdded(), summary.getUpdated(), summary.getSkipped()));
+        } else if (summary.getSkipped() > 0) {
+            NotificationUtil.showInformationMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.upload_sources_unchanged"), summary.getSkipped()));
+        }
+    }
+
+    /**
+     * Computes what the upload of the sources to the branch would do, without any changes in Crowdin.
+     * Labels are read from the project cache, and the file tree of a branch that doesn't exist yet should be empty
+     */
+    public static UploadPlan planSources(
+        Project project, VirtualFile root,
+        Crowdin crowdin, CrowdinProjectCacheProvider.CrowdinProjectCache projectCache,
+        Branch branch, CrowdinFileTree fileTree, boolean preserveHierarchy, Map<FileBean, List<VirtualFile>> sourcesToUpload, boolean force
     ) {
-        Map<String, FileInfo> filePaths = projectCache.getFileInfos(branch);
-        Map<String, Directory> dirPaths = projectCache.getDirs().getOrDefault(branch, new HashMap<>());
-        Map<String, Long> labels = SourceLogic.prepareLabels(crowdin, new ArrayList<>(sourcesToUpload.keySet()));
         Long branchId = (branch != null) ? branch.getId() : null;
+        SourceLogic sourceLogic = new SourceLogic(root, project, crowdin, fileTree, branchId, null, OperationJournal.inMemory(), force);
+        return SourceLogic.planSources(sourceLogic, crowdin, projectCache, preserveHierarchy, sourcesToUpload);
+    }
 
-        SourceLogic sourceLogic = new SourceLogic(root, project, crowdin, filePaths, dirPaths, labels, branchId);
+    private static UploadPlan planSources(
+        SourceLogic sourceLogic, Crowdin crowdin, CrowdinProjectCacheProvider.CrowdinProjectCache projectCache,
+        boolean preserveHierarchy, Map<FileBean, List<VirtualFile>> sourcesToUpload
+    ) {
         for (FileBean fileBean : sourcesToUpload.keySet()) {
             if (fileBean.getExcludedTargetLanguages() != null && !fileBean.getExcludedTargetLanguages().isEmpty()) {
                 SourceLogic.checkExcludedTargetLanguages(fileBean.getExcludedTargetLanguages(), projectCache.getSupportedLanguages(), projectCache.getProjectLanguages());
             }
         }
-        for (FileBean fileBean : sourcesToUpload.keySet()) {
-            for (VirtualFile source : sourcesToUpload.get(fileBean)) {
-                try {
-                    sourceLogic.uploadSource(source, fileBean, preserveHierarchy);
-                } catch (Exception e) {
-                    NotificationUtil.logErrorMessage(project, e);
-                    NotificationUtil.showErrorMessage(project, e.getMessage());
-                }
+        boolean hasLabels = sourcesToUpload.keySet().stream().anyMatch(fileBean -> fileBean.getLabels() != null && !fileBean.getLabels().isEmpty());
+        Map<String, Long> knownLabels = (hasLabels) ? projectCache.getLabels().known(crowdin) : Collections.emptyMap();
+        return sourceLogic.plan(sourcesToUpload, preserveHierarchy, knownLabels);
+    }
+
+    /**
+     * @return counts of the planned changes, followed by the changed files
+     */
+    public static String describePlan(UploadPlan plan) {
+        StringBuilder description = new StringBuilder(String.format(MESSAGES_BUNDLE.getString("messages.upload_plan"),
+            plan.getPlanningMillis(), plan.count(UploadPlan.Action.ADD), plan.count(UploadPlan.Action.UPDATE), plan.count(UploadPlan.Action.SKIP),
+            plan.countExcludedLanguagesPatches(), plan.countDirectories(), plan.getLabelsToCreate().size()));
+        int described = 0;
+        for (UploadPlan.Entry entry : plan.getEntries()) {
+            if (entry.getAction() == UploadPlan.Action.SKIP) {
+                continue;
             }
+            if (described == MAX_DESCRIBED_ENTRIES) {
+                description.append(String.format(MESSAGES_BUNDLE.getString("messages.upload_plan.more"),
+                    plan.count(UploadPlan.Action.ADD) + plan.count(UploadPlan.Action.UPDATE) - MAX_DESCRIBED_ENTRIES));
+                break;
+            }
+            description.append(String.format(MESSAGES_BUNDLE.getString("messages.upload_plan.entry"),
+                entry.getAction().name().toLowerCase(), FileUtil.noSepAtStart(entry.getPath().toOsPath())));
+            described++;
+        }
+        if (!plan.getLabelsToCreate().isEmpty()) {
+            description.append(String.format(MESSAGES_BUNDLE.getString("messages.upload_plan.labels"), String.join(", ", plan.getLabelsToCreate())));
+        }
+        if (!plan.getFailures().isEmpty()) {
+            description.append(String.format(MESSAGES_BUNDLE.getString("messages.upload_plan.failures"), String.join("; ", plan.getFailures())));
         }
+        return description.toString();
     }
 
     public SourceLogic(
         VirtualFile root, Project project,
         Crowdin crowdin,
-        Map<String, FileInfo> filePaths, Map<String, Directory> dirPaths, Map<String, Long> labelMap, Long branchId
+        CrowdinFileTree fileTree, Long branchId, StorageCache storageCache, OperationJournal journal, boolean force
     ) {
         this.root = root;
         this.project = project;
         this.crowdin = crowdin;
-        this.filePaths = filePaths;
-        this.dirPaths = dirPaths;
-        this.labels = labelMap;
+        this.fileTree = fileTree;
         this.branchId = branchId;
+        this.storageCache = storageCache;
+        this.manifest = ServiceManager.getService(project, SourceManifest.class);
+        this.manifestKey = SourceManifest.branchKey(crowdin.getProjectId(), branchId);
+        this.journal = journal;
+        this.force = force;
+    }
+
+    /**
+     * Computes what the upload of the sources would do from the cached file tree, the manifest, the journal and the local files
+     *
+     * @param knownLabels ids of the existing labels, by title
+     */
+    public UploadPlan plan(Map<FileBean, List<VirtualFile>> sourcesToUpload, boolean preserveHierarchy, Map<String, Long> knownLabels) {
+        long start = System.currentTimeMillis();
+        List<UploadPlan.Entry> entries = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        for (FileBean fileBean : sourcesToUpload.keySet()) {
+            for (VirtualFile source : sourcesToUpload.get(fileBean)) {
+                try {
+                    entries.add(this.planSource(source, fileBean, preserveHierarchy));
+                } catch (Exception e) {
+                    NotificationUtil.logErrorMessage(project, e);
+                    failures.add(e.getMessage());
+                }
+            }
+        }
+        List<List<CrowdinPath>> directories = (preserveHierarchy)
+            ? DirectoryPlanner.plan(fileTree, UploadPlan.parentsOfAdded(entries))
+            : Collections.emptyList();
+        Map<String, Long> labels = UploadPlan.knownLabels(sourcesToUpload.keySet(), knownLabels);
+        List<String> labelsToCreate = UploadPlan.labelsToCreate(sourcesToUpload.keySet(), knownLabels.keySet());
+        return new UploadPlan(entries, failures, directories, labels, labelsToCreate, System.currentTimeMillis() - start);
     }
 
-    public void uploadSource(VirtualFile source, FileBean fileBean, boolean preserveHierarchy) {
+    private UploadPlan.Entry planSource(VirtualFile source, FileBean fileBean, boolean preserveHierarchy) {
         try {
             VirtualFile pathToPattern = FileUtil.getBaseDir(source, fileBean.getSource());
 
-            GeneralFileExportOptions exportOptions = new GeneralFileExportOptions();
-
-            String path;
-            String parentPath;
+            CrowdinPath path = this.sourcePath(source, pathToPattern, preserveHierarchy);
+            String exportPattern;
             if (preserveHierarchy) {
                 String relativePathToPattern = FileUtil.findRelativePath(root, pathToPattern);
-                String patternPathToFile = FileUtil.findRelativePath(pathToPattern, source.getParent());
+                exportPattern = sepAtStart(unixPath(joinPaths(relativePathToPattern, fileBean.getTranslation())));
+            } else {
+                exportPattern = sepAtStart(fileBean.getTranslation());
+            }
 
-                path = sepAtStart(normalizePath(joinPaths(relativePathToPattern, patternPathToFile, source.getName())));
+            byte[] content = source.contentsToByteArray();
+            String contentHash = SourceManifest.fingerprint(content);
+            String fingerprint = SourceManifest.fingerprint(contentHash, exportPattern,
+                String.valueOf(fileBean.getLabels()), String.valueOf(fileBean.getExcludedTargetLanguages()));
+            FileInfo foundFile = fileTree.getFile(path);
+            boolean resumed = !force && journal.isDone(OperationJournal.Step.SOURCE, path.toString(), fingerprint);
+            UploadPlan.Action action;
+            if (resumed || (foundFile != null && !force && manifest.isUnchanged(manifestKey, path, fingerprint, revisionId(foundFile)))) {
+                action = UploadPlan.Action.SKIP;
+            } else if (foundFile != null) {
+                action = UploadPlan.Action.UPDATE;
+            } else {
+                action = UploadPlan.Action.ADD;
+            }
+            boolean patchExcludedLanguages = action == UploadPlan.Action.UPDATE
+                && UploadPlan.needsExcludedLanguagesPatch(fileBean.getExcludedTargetLanguages(), foundFile);
+            return new UploadPlan.Entry(source, fileBean, path, exportPattern, (action != UploadPlan.Action.SKIP) ? content : null, contentHash,
+                fingerprint, foundFile, action, resumed, patchExcludedLanguages);
+        } catch (Exception e) {
+            throw new RuntimeException(String.format("Couldn't upload source file '%s': %s", source.getName(), e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Creates parent directories of all new source files up front, so file uploads don't wait for each other's directories
+     */
+    private void createMissingDirectories(UploadPlan plan, ProgressIndicator indicator) {
+        if (plan.getDirectories().isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int created = new DirectoryPlanner(crowdin, fileTree, branchId).create(plan.getDirectories(), UPLOAD_EXECUTOR, indicator);
+        NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_sources.create_directories"),
+            created, plan.countDirectories(), System.currentTimeMillis() - start));
+    }
+
+    private CrowdinPath sourcePath(VirtualFile source, VirtualFile pathToPattern, boolean preserveHierarchy) {
+        if (preserveHierarchy) {
+            String relativePathToPattern = FileUtil.findRelativePath(root, pathToPattern);
+            String patternPathToFile = FileUtil.findRelativePath(pathToPattern, source.getParent());
+            return CrowdinPath.of(relativePathToPattern, patternPathToFile, source.getName());
+        } else {
+            return CrowdinPath.of(source.getName());
+        }
+    }
 
-                parentPath = sepAtStart(normalizePath(joinPaths(relativePathToPattern, patternPathToFile)));
-                exportOptions.setExportPattern(sepAtStart(unixPath(joinPaths(relativePathToPattern, fileBean.getTranslation()))));
+    /**
+     * Executes the planned upload of the source file
+     *
+     * @param labels ids of the labels by title, including the created ones
+     */
+    public UploadSummary.Outcome uploadSource(UploadPlan.Entry entry, Map<String, Long> labels) {
+        VirtualFile source = entry.getSource();
+        FileBean fileBean = entry.getFileBean();
+        CrowdinPath path = entry.getPath();
+        String outputName = FileUtil.noSepAtStart(path.toOsPath());
+        if (entry.getAction() == UploadPlan.Action.SKIP) {
+            if (entry.isResumed()) {
+                NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_sources.resumed"), outputName));
+                Long revisionId = revisionId(entry.getCrowdinFile());
+                if (revisionId != null) {
+                    manifest.record(manifestKey, path, entry.getFingerprint(), revisionId);
+                }
             } else {
-                path = sepAtStart(source.getName());
-                parentPath = "";
-                exportOptions.setExportPattern(sepAtStart(fileBean.getTranslation()));
+                NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_sources.unchanged"), outputName));
             }
+            return UploadSummary.Outcome.SKIPPED;
+        }
+        try {
+            GeneralFileExportOptions exportOptions = new GeneralFileExportOptions();
+            exportOptions.setExportPattern(entry.getExportPattern());
+            String fingerprint = entry.getFingerprint();
+            List<Long> labelIds = (fileBean.getLabels() != null && !fileBean.getLabels().isEmpty())
+                ? fileBean.getLabels().stream().map(labels::get).collect(Collectors.toList())
+                : null;
 
-            String outputName = FileUtil.noSepAtStart(path);
-            FileInfo foundFile = filePaths.get(path);
-            if (foundFile != null) {
+            if (entry.getAction() == UploadPlan.Action.UPDATE) {
                 NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_sources.update"), outputName, fileBean.getSource()));
-                Long sourceId = filePaths.get(path).getId();
-                Long storageId;
+                Long sourceId = entry.getCrowdinFile().getId();
                 NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_sources.add_to_storage"), outputName));
-                try (InputStream sourceStream = source.getInputStream()) {
-                    storageId = crowdin.addStorage(source.getName(), sourceStream);
-                }
+                Long storageId = this.addStorage(entry);
 
 
                 UpdateFileRequest updateFileRequest = RequestBuilder.updateFile(storageId, exportOptions);
 
-                if (fileBean.getLabels() != null && !fileBean.getLabels().isEmpty()) {
-                    List<Long> labelIds = fileBean.getLabels().stream().map(labels::get).collect(Collectors.toList());
+                if (labelIds != null) {
                     updateFileRequest.setAttachLabelIds(labelIds);
                 }
 
                 NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_sources.update_request"), updateFileRequest));
-                crowdin.updateSource(sourceId, updateFileRequest);
-                if (fileBean.getExcludedTargetLanguages() != null && !fileBean.getExcludedTargetLanguages().isEmpty()) {
-                    List<String> projectFileExcludedTargetLanguages = ((com.crowdin.client.sourcefiles.model.File) foundFile).getExcludedTargetLanguages();
-                    if (!fileBean.getExcludedTargetLanguages().equals(projectFileExcludedTargetLanguages)) {
-                        List<PatchRequest> editRequest = RequestBuilder.updateExcludedTargetLanguages(fileBean.getExcludedTargetLanguages());
-                        crowdin.editSource(sourceId, editRequest);
-                    }
+                FileInfo updatedFile = crowdin.updateSource(sourceId, updateFileRequest);
+                if (entry.isPatchExcludedLanguages()) {
+                    List<PatchRequest> editRequest = RequestBuilder.updateExcludedTargetLanguages(fileBean.getExcludedTargetLanguages());
+                    crowdin.editSource(sourceId, editRequest);
                 }
-                NotificationUtil.showInformationMessage(project, "File '" + outputName + "' is updated");
+                manifest.record(manifestKey, path, fingerprint, revisionId(updatedFile));
+                journal.record(OperationJournal.Step.SOURCE, path.toString(), fingerprint, String.valueOf(updatedFile.getId()));
+                NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.source_updated"), outputName));
+                return UploadSummary.Outcome.UPDATED;
             } else {
                 NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_sources.upload"), outputName, fileBean.getSource()));
                 String type = source.getFileType().getName().toLowerCase();
-                Long directoryId = this.buildPath(crowdin, parentPath, dirPaths, branchId);
-                Long storageId;
+                Long directoryId = this.buildPath(crowdin, path.getParent(), branchId);
                 NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_sources.add_to_storage"), outputName));
-                try (InputStream sourceStream = source.getInputStream()) {
-                    storageId = crowdin.addStorage(source.getName(), sourceStream);
-                }
+                Long storageId = this.addStorage(entry);
 
                 AddFileRequest addFileRequest = RequestBuilder.addFile(
                     storageId, source.getName(), (directoryId == null ? branchId : null), directoryId, type, exportOptions);
 
-                if (fileBean.getLabels() != null && !fileBean.getLabels().isEmpty()) {
-                    List<Long> labelIds = fileBean.getLabels().stream().map(labels::get).collect(Collectors.toList());
+                if (labelIds != null) {
                     addFileRequest.setAttachLabelIds(labelIds);
                 }
                 if (fileBean.getExcludedTargetLanguages() != null && !fileBean.getExcludedTargetLanguages().isEmpty()) {
@@ -153,40 +406,63 @@ public class SourceLogic {
                 }
 
                 NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.upload_sources.upload_request"), addFileRequest));
-                crowdin.addSource(addFileRequest);
-                NotificationUtil.showInformationMessage(project, "File '" + outputName + "' is uploaded");
+                FileInfo addedFile = crowdin.addSource(addFileRequest);
+                manifest.record(manifestKey, path, fingerprint, revisionId(addedFile));
+                journal.record(OperationJournal.Step.SOURCE, path.toString(), fingerprint, String.valueOf(addedFile.getId()));
+                NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.source_uploaded"), outputName));
+                return UploadSummary.Outcome.ADDED;
             }
         } catch (Exception e) {
-            throw new RuntimeException(String.format("Couldn't upload source file: %s", e.getMessage()), e);
+            throw new RuntimeException(String.format("Couldn't upload source file '%s': %s", source.getName(), e.getMessage()), e);
+        }
+    }
+
+    /**
+     * @return id of the storage with the content, reusing the storage added by an interrupted upload
+     */
+    private Long addStorage(UploadPlan.Entry entry) {
+        String path = entry.getPath().toString();
+        Long storageId = journal.getStorageId(path, entry.getFingerprint());
+        if (storageId == null) {
+            storageId = storageCache.addStorage(entry.getSource().getName(), entry.getContent(), entry.getContentHash());
+            journal.record(OperationJournal.Step.STORAGE, path, entry.getFingerprint(), storageId.toString());
         }
+        return storageId;
+    }
+
+    private static Long revisionId(FileInfo file) {
+        return (file instanceof com.crowdin.client.sourcefiles.model.File) ? ((com.crowdin.client.sourcefiles.model.File) file).getRevisionId() : null;
     }
 
-    private boolean isFileUploaded(String path) {
-        return filePaths.containsKey(path);
+    private boolean isFileUploaded(CrowdinPath path) {
+        return fileTree.getFile(path) != null;
+    }
+
+    /**
+     * Finds the directory, creating the missing ones that weren't created up front
+     */
+    private Long buildPath(Crowdin crowdin, CrowdinPath path, Long branchId) {
+        synchronized (directoryLock) {
+            return this.buildPathSerialized(crowdin, path, branchId);
+        }
     }
 
-    private Long buildPath(Crowdin crowdin, String path, Map<String, Directory> dirs, Long branchId) {
-        String[] dirNames = FileUtil.splitPath(path);
-        StringBuilder builtPath = new StringBuilder();
+    private Long buildPathSerialized(Crowdin crowdin, CrowdinPath path, Long branchId) {
         Directory parent = null;
-        for (String dirName : dirNames) {
-            if (StringUtils.isEmpty(dirName)) {
-                continue;
-            }
-            builtPath.append(java.io.File.separator).append(dirName);
-            if (dirs.containsKey(builtPath.toString())) {
-                parent = dirs.get(builtPath.toString());
-            } else {
+        for (int i = 0; i < path.getSegmentCount(); i++) {
+            Directory dir = fileTree.getDirectory(path.subpath(i + 1));
+            if (dir == null) {
                 AddDirectoryRequest addDirectoryRequest = new AddDirectoryRequest();
                 if (parent != null) {
                     addDirectoryRequest.setDirectoryId(parent.getId());
                 } else {
                     addDirectoryRequest.setBranchId(branchId);
                 }
-                addDirectoryRequest.setName(dirName);
-                parent = crowdin.addDirectory(addDirectoryRequest);
-                dirs.put(builtPath.toString(), parent);
+                addDirectoryRequest.setName(path.getSegment(i));
+                dir = crowdin.addDirectory(addDirectoryRequest);
+                fileTree.addDirectory(dir);
             }
+            parent = dir;
         }
         return (parent != null) ? parent.getId() : null;
     }
@@ -216,15 +492,19 @@ public class SourceLogic {
         }
     }
 
-    public static Map<String, Long> prepareLabels(Crowdin crowdin, List<FileBean> fileBeans) {
-        Map<String, Long> labels = crowdin.listLabels().stream()
-            .collect(Collectors.toMap(Label::getTitle, Label::getId));
-        fileBeans.stream()
-            .map(FileBean::getLabels)
-            .filter(Objects::nonNull)
-            .flatMap(List::stream)
-            .distinct()
-            .forEach(labelTitle -> labels.computeIfAbsent(labelTitle, (title) -> crowdin.addLabel(RequestBuilder.addLabel(title)).getId()));
+    /**
+     * @return ids of the labels of the planned files by title, creating the labels the plans found missing
+     */
+    private static Map<String, Long> createLabels(Crowdin crowdin, LabelRegistry labelRegistry, Collection<UploadPlan> plans) {
+        Map<String, Long> labels = new HashMap<>();
+        Set<String> labelsToCreate = new LinkedHashSet<>();
+        for (UploadPlan plan : plans) {
+            labels.putAll(plan.getLabels());
+            labelsToCreate.addAll(plan.getLabelsToCreate());
+        }
+        if (!labelsToCreate.isEmpty()) {
+            labels.putAll(labelRegistry.resolve(crowdin, labelsToCreate));
+        }
         return labels;
     }
 
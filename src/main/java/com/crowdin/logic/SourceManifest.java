@@ -0,0 +1,152 @@
+package com.crowdin.logic;
+
+import com.crowdin.util.CrowdinPath;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import org.jdom.Element;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fingerprints of source files as they were last uploaded, per Crowdin project and branch.
+ * A fingerprint covers the file content and the upload options, so a file is uploaded again if either of them changes.
+ * The revision of the Crowdin file after the upload is kept as well, so files updated in Crowdin by someone else are not skipped.
+ * Stored in the workspace file, as it describes the state of the local working copy.
+ */
+@State(name = "CrowdinSourceManifest", storages = @Storage(StoragePathMacros.WORKSPACE_FILE))
+public class SourceManifest implements PersistentStateComponent<Element> {
+
+    private static final String MANIFEST_TAG = "CrowdinSourceManifest";
+    private static final String BRANCH_TAG = "branch";
+    private static final String FILE_TAG = "file";
+    private static final String KEY = "key";
+    private static final String PATH = "path";
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String REVISION = "revision";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Map<String, Map<CrowdinPath, Entry>> branches = new ConcurrentHashMap<>();
+
+    /**
+     * @param branchId branch id or null if branches are not used
+     * @return key of the manifest of the branch
+     */
+    public static String branchKey(@NotNull Long projectId, Long branchId) {
+        return projectId + ":" + ((branchId != null) ? branchId : "");
+    }
+
+    /**
+     * @param options upload options that change the Crowdin file, like export pattern or labels
+     * @return fingerprint of the file content and options
+     */
+    public static String fingerprint(@NotNull byte[] content, String... options) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content);
+            for (String option : options) {
+                digest.update((byte) 0);
+                digest.update(String.valueOf(option).getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] hash = digest.digest();
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[hash[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param contentHash fingerprint of the file content alone, see {@link #fingerprint(byte[], String...)}
+     * @param options upload options that change the Crowdin file, like export pattern or labels
+     * @return fingerprint of the content and options, without hashing the content again
+     */
+    public static String fingerprint(@NotNull String contentHash, String... options) {
+        return fingerprint(contentHash.getBytes(StandardCharsets.UTF_8), options);
+    }
+
+    /**
+     * @param revisionId current revision of the Crowdin file, null if it's unknown
+     * @return true if the file was uploaded with the same fingerprint and wasn't changed in Crowdin since then.
+     * If either revision is unknown, the file is treated as changed
+     */
+    public boolean isUnchanged(String branchKey, CrowdinPath path, String fingerprint, Long revisionId) {
+        Map<CrowdinPath, Entry> files = branches.get(branchKey);
+        Entry entry = (files != null) ? files.get(path) : null;
+        return entry != null
+            && entry.fingerprint.equals(fingerprint)
+            && entry.revisionId != null
+            && entry.revisionId.equals(revisionId);
+    }
+
+    /**
+     * @param revisionId revision of the Crowdin file after the upload, null if it's unknown
+     */
+    public void record(String branchKey, CrowdinPath path, String fingerprint, Long revisionId) {
+        branches.computeIfAbsent(branchKey, k -> new ConcurrentHashMap<>()).put(path, new Entry(fingerprint, revisionId));
+    }
+
+    @Nullable
+    @Override
+    public Element getState() {
+        Element element = new Element(MANIFEST_TAG);
+        for (Map.Entry<String, Map<CrowdinPath, Entry>> branch : branches.entrySet()) {
+            Element branchElement = new Element(BRANCH_TAG);
+            branchElement.setAttribute(KEY, branch.getKey());
+            for (Map.Entry<CrowdinPath, Entry> file : branch.getValue().entrySet()) {
+                Element fileElement = new Element(FILE_TAG);
+                fileElement.setAttribute(PATH, file.getKey().toString());
+                fileElement.setAttribute(FINGERPRINT, file.getValue().fingerprint);
+                if (file.getValue().revisionId != null) {
+                    fileElement.setAttribute(REVISION, file.getValue().revisionId.toString());
+                }
+                branchElement.addContent(fileElement);
+            }
+            element.addContent(branchElement);
+        }
+        return element;
+    }
+
+    @Override
+    public void loadState(@NotNull Element state) {
+        try {
+            branches.clear();
+            for (Element branchElement : state.getChildren(BRANCH_TAG)) {
+                Map<CrowdinPath, Entry> files = new ConcurrentHashMap<>();
+                for (Element fileElement : branchElement.getChildren(FILE_TAG)) {
+                    String revision = fileElement.getAttributeValue(REVISION);
+                    files.put(
+                        CrowdinPath.of(fileElement.getAttributeValue(PATH)),
+                        new Entry(fileElement.getAttributeValue(FINGERPRINT), (revision != null) ? Long.valueOf(revision) : null));
+                }
+                branches.put(branchElement.getAttributeValue(KEY), files);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error while loading crowdin source manifest", e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final Long revisionId;
+
+        private Entry(String fingerprint, Long revisionId) {
+            this.fingerprint = Objects.requireNonNull(fingerprint);
+            this.revisionId = revisionId;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.crowdin.logic;
+
+import com.crowdin.client.Crowdin;
+import com.crowdin.util.NotificationUtil;
+import com.crowdin.util.SingleFlight;
+import com.intellij.openapi.project.Project;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.crowdin.Constants.MESSAGES_BUNDLE;
+
+/**
+ * Crowdin storages added during one operation, by file name and content hash.
+ * Files with identical name and content are sent to the storage once, and the storage id is reused for all of them.
+ */
+public class StorageCache {
+
+    private final Crowdin crowdin;
+    private final Map<String, Long> storages = new ConcurrentHashMap<>();
+    private final SingleFlight<String, Long> uploads = new SingleFlight<>();
+
+    private final AtomicInteger uploaded = new AtomicInteger();
+    private final AtomicLong bytesUploaded = new AtomicLong();
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    public StorageCache(Crowdin crowdin) {
+        this.crowdin = crowdin;
+    }
+
+    /**
+     * @param contentHash fingerprint of the content alone, see {@link SourceManifest#fingerprint(byte[], String...)}, computed once by the caller
+     * @return id of the storage with the content, added if no storage with the same name and content was added yet
+     */
+    public Long addStorage(String fileName, byte[] content, String contentHash) {
+        String key = contentHash + ":" + fileName;
+        Long storageId = storages.get(key);
+        if (storageId == null) {
+            boolean[] added = {false};
+            storageId = uploads.execute(key, () -> {
+                Long id = storages.get(key);
+                if (id == null) {
+                    id = crowdin.addStorage(fileName, new ByteArrayInputStream(content));
+                    storages.put(key, id);
+                    added[0] = true;
+                }
+                return id;
+            });
+            if (added[0]) {
+                uploaded.incrementAndGet();
+                bytesUploaded.addAndGet(content.length);
+                return storageId;
+            }
+        }
+        reused.incrementAndGet();
+        bytesSaved.addAndGet(content.length);
+        return storageId;
+    }
+
+    public int getReused() {
+        return reused.get();
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    /**
+     * Logs how many storages were added and reused, if any were reused
+     */
+    public void logStats(Project project) {
+        if (this.getReused() > 0) {
+            NotificationUtil.logDebugMessage(project, String.format(MESSAGES_BUNDLE.getString("messages.debug.storage_reused"),
+                uploaded.get(), bytesUploaded.get(), this.getReused(), this.getBytesSaved()));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.crowdin.logic;
+
+import com.crowdin.util.CrowdinPath;
+import com.crowdin.util.FileUtil;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.apache.commons.lang.StringUtils;
+import org.jdom.Element;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fingerprints of local translation files as they were last downloaded from or uploaded to Crowdin,
+ * per Crowdin project and branch, so translation files that weren't changed locally since then are not uploaded again.
+ * Stored in the workspace file, as it describes the state of the local working copy.
+ */
+@State(name = "CrowdinTranslationManifest", storages = @Storage(StoragePathMacros.WORKSPACE_FILE))
+public class TranslationManifest implements PersistentStateComponent<Element> {
+
+    private static final String MANIFEST_TAG = "CrowdinTranslationManifest";
+    private static final String BRANCH_TAG = "branch";
+    private static final String FILE_TAG = "file";
+    private static final String KEY = "key";
+    private static final String PATH = "path";
+    private static final String LANGUAGE = "language";
+    private static final String FINGERPRINT = "fingerprint";
+
+    /** Fingerprints by branch key, translation file path and language id */
+    private final Map<String, Map<CrowdinPath, Map<String, String>>> branches = new ConcurrentHashMap<>();
+
+    /**
+     * @return path of the local translation file relative to the project root, the key of its fingerprints
+     */
+    public static CrowdinPath relativePath(@NotNull VirtualFile root, @NotNull java.io.File translationFile) {
+        return CrowdinPath.of(StringUtils.removeStart(FileUtil.unixPath(translationFile.getPath()), root.getPath()));
+    }
+
+    /**
+     * @param branchKey key from {@link SourceManifest#branchKey}
+     * @return true if the translation file was synced with the same fingerprint
+     */
+    public boolean isUnchanged(String branchKey, CrowdinPath path, String languageId, String fingerprint) {
+        Map<CrowdinPath, Map<String, String>> files = branches.get(branchKey);
+        Map<String, String> languages = (files != null) ? files.get(path) : null;
+        return languages != null && fingerprint.equals(languages.get(languageId));
+    }
+
+    public void record(String branchKey, CrowdinPath path, String languageId, String fingerprint) {
+        branches.computeIfAbsent(branchKey, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(path, k -> new ConcurrentHashMap<>())
+            .put(languageId, fingerprint);
+    }
+
+    @Nullable
+    @Override
+    public Element getState() {
+        Element element = new Element(MANIFEST_TAG);
+        for (Map.Entry<String, Map<CrowdinPath, Map<String, String>>> branch : branches.entrySet()) {
+            Element branchElement = new Element(BRANCH_TAG);
+            branchElement.setAttribute(KEY, branch.getKey());
+            for (Map.Entry<CrowdinPath, Map<String, String>> file : branch.getValue().entrySet()) {
+                for (Map.Entry<String, String> language : file.getValue().entrySet()) {
+                    Element fileElement = new Element(FILE_TAG);
+                    fileElement.setAttribute(PATH, file.getKey().toString());
+                    fileElement.setAttribute(LANGUAGE, language.getKey());
+                    fileElement.setAttribute(FINGERPRINT, language.getValue());
+                    branchElement.addContent(fileElement);
+                }
+            }
+            element.addContent(branchElement);
+        }
+        return element;
+    }
+
+    @Override
+    public void loadState(@NotNull Element state) {
+        try {
+            branches.clear();
+            for (Element branchElement : state.getChildren(BRANCH_TAG)) {
+                String branchKey = branchElement.getAttributeValue(KEY);
+                for (Element fileElement : branchElement.getChildren(FILE_TAG)) {
+                    this.record(branchKey, CrowdinPath.of(fileElement.getAttributeValue(PATH)),
+                        fileElement.getAttributeValue(LANGUAGE), fileElement.getAttributeValue(FINGERPRINT));
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error while loading crowdin translation manifest", e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.crowdin.logic;
+
+import com.crowdin.client.CrowdinProjectCacheProvider;
+import com.crowdin.client.CrowdinProperties;
+import com.crowdin.client.FileBean;
+import com.crowdin.client.languages.model.Language;
+import com.crowdin.util.FileUtil;
+import com.crowdin.util.LanguagePlaceholderTable;
+import com.crowdin.util.TranslationPathMatcher;
+import com.crowdin.util.TranslationPatternTemplate;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Reverse index from translation file paths to their source files and languages.
+ * Every translation pattern is compiled into one {@link TranslationPathMatcher}, and source files are grouped by their base directory
+ * and file placeholder values, so a lookup is a match per pattern and base directory instead of rendering every source and language pair.
+ * The index is built once for a configuration and a project cache version, and is rebuilt lazily after the set of local source files changes.
+ */
+public class TranslationPathIndex {
+
+    private final SourceFilesIndex sourceFilesIndex;
+
+    private CrowdinProperties indexedProperties;
+    private String indexedRoot;
+    private long indexedCacheVersion = -1;
+    private long indexedSourcesVersion = -1;
+    private LanguagePlaceholderTable languages;
+    private List<PatternIndex> patterns = new ArrayList<>();
+
+    public TranslationPathIndex(Project project) {
+        this.sourceFilesIndex = ServiceManager.getService(project, SourceFilesIndex.class);
+    }
+
+    public synchronized Optional<Pair<VirtualFile, Language>> find(
+        VirtualFile file, CrowdinProperties properties, VirtualFile root, CrowdinProjectCacheProvider.CrowdinProjectCache crowdinProjectCache
+    ) {
+        long currentSourcesVersion = sourceFilesIndex.getModificationCount();
+        if (!Objects.equals(indexedProperties, properties)
+                || !Objects.equals(indexedRoot, root.getPath())
+                || indexedCacheVersion != crowdinProjectCache.getVersion()
+                || indexedSourcesVersion != currentSourcesVersion) {
+            languages = crowdinProjectCache.getLanguagePlaceholders();
+            patterns = this.build(properties, root, languages);
+            indexedProperties = properties;
+            indexedRoot = root.getPath();
+            indexedCacheVersion = crowdinProjectCache.getVersion();
+            indexedSourcesVersion = currentSourcesVersion;
+        }
+        Path filePath = Paths.get(file.getPath());
+        for (PatternIndex pattern : patterns) {
+            for (VirtualFile baseDir = file.getParent(); baseDir != null; baseDir = baseDir.getParent()) {
+                Map<String, VirtualFile> sources = pattern.sourcesByBaseDir.get(baseDir.getPath());
+                if (sources == null) {
+                    continue;
+                }
+                TranslationPathMatcher.Match match = pattern.matcher.match(VfsUtilCore.getRelativePath(file, baseDir, '/'));
+                VirtualFile source = (match != null) ? sources.get(match.getFileKey()) : null;
+                if (source == null) {
+                    continue;
+                }
+                String builtPattern = pattern.template.withFile(source.getName()).render(languages, match.getLanguageIndex());
+                if (filePath.equals(Paths.get(baseDir.getPath(), builtPattern))) {
+                    return Optional.of(Pair.of(source, languages.getLanguage(match.getLanguageIndex())));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<PatternIndex> build(CrowdinProperties properties, VirtualFile root, LanguagePlaceholderTable languages) {
+        List<PatternIndex> patterns = new ArrayList<>();
+        Map<FileBean, List<VirtualFile>> sources = sourceFilesIndex.getSourceFiles(root, properties.getFiles());
+        for (FileBean fileBean : properties.getFiles()) {
+            PatternIndex pattern = new PatternIndex(TranslationPatternTemplate.parse(fileBean.getTranslation()), languages);
+            for (VirtualFile source : sources.get(fileBean)) {
+                VirtualFile baseDir = FileUtil.getBaseDir(source, fileBean.getSource());
+                pattern.sourcesByBaseDir
+                    .computeIfAbsent(baseDir.getPath(), k -> new HashMap<>())
+                    .putIfAbsent(pattern.matcher.fileKey(source.getName()), source);
+            }
+            patterns.add(pattern);
+        }
+        return patterns;
+    }
+
+    private static class PatternIndex {
+
+        private final TranslationPatternTemplate template;
+        private final TranslationPathMatcher matcher;
+        /** Sources by base directory path and file placeholder values, the first source wins if several render to the same paths */
+        private final Map<String, Map<String, VirtualFile>> sourcesByBaseDir = new HashMap<>();
+
+        private PatternIndex(TranslationPatternTemplate template, LanguagePlaceholderTable languages) {
+            this.template = template;
+            this.matcher = TranslationPathMatcher.compile(template, languages);
+        }
+    }
+}
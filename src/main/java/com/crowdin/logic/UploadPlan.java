@@ -0,0 +1,232 @@
+package com.crowdin.logic;
+
+import com.crowdin.client.FileBean;
+import com.crowdin.client.sourcefiles.model.FileInfo;
+import com.crowdin.util.CrowdinPath;
+import com.intellij.openapi.vfs.VirtualFile;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * What an upload of sources to one branch does, computed from the cached Crowdin file tree, the manifest
+ * of the previous uploads and the local files, without any requests to Crowdin.
+ * The upload executes the plan, and the dry run only reports it.
+ */
+public class UploadPlan {
+
+    public enum Action {
+        ADD, UPDATE, SKIP
+    }
+
+    private final List<Entry> entries;
+    private final List<String> failures;
+    private final List<List<CrowdinPath>> directories;
+    private final Map<String, Long> labels;
+    private final List<String> labelsToCreate;
+    private final long planningMillis;
+
+    public UploadPlan(
+        List<Entry> entries, List<String> failures, List<List<CrowdinPath>> directories,
+        Map<String, Long> labels, List<String> labelsToCreate, long planningMillis
+    ) {
+        this.entries = entries;
+        this.failures = failures;
+        this.directories = directories;
+        this.labels = labels;
+        this.labelsToCreate = labelsToCreate;
+        this.planningMillis = planningMillis;
+    }
+
+    /**
+     * @return source files to upload, including the skipped ones
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return messages of the source files that couldn't be planned, like unreadable files
+     */
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return missing directories by level, see {@link DirectoryPlanner#plan}
+     */
+    public List<List<CrowdinPath>> getDirectories() {
+        return directories;
+    }
+
+    /**
+     * @return ids of the existing labels of the source files, by title
+     */
+    public Map<String, Long> getLabels() {
+        return labels;
+    }
+
+    public List<String> getLabelsToCreate() {
+        return labelsToCreate;
+    }
+
+    public long getPlanningMillis() {
+        return planningMillis;
+    }
+
+    public int count(Action action) {
+        return (int) entries.stream().filter(entry -> entry.getAction() == action).count();
+    }
+
+    public int countExcludedLanguagesPatches() {
+        return (int) entries.stream().filter(Entry::isPatchExcludedLanguages).count();
+    }
+
+    public int countDirectories() {
+        return directories.stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * @return ids of the labels of the file beans that are among the known labels, by title
+     */
+    public static Map<String, Long> knownLabels(Collection<FileBean> fileBeans, Map<String, Long> knownLabels) {
+        Map<String, Long> labels = new HashMap<>();
+        for (FileBean fileBean : fileBeans) {
+            if (fileBean.getLabels() == null) {
+                continue;
+            }
+            for (String title : fileBean.getLabels()) {
+                Long id = knownLabels.get(title);
+                if (id != null) {
+                    labels.put(title, id);
+                }
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * @return titles of the labels of the file beans that are not among the known labels, sorted
+     */
+    public static List<String> labelsToCreate(Collection<FileBean> fileBeans, Set<String> knownLabels) {
+        return fileBeans.stream()
+            .map(FileBean::getLabels)
+            .filter(Objects::nonNull)
+            .flatMap(List::stream)
+            .filter(title -> !knownLabels.contains(title))
+            .distinct()
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return true if the excluded target languages of the existing Crowdin file differ from the configured ones
+     */
+    public static boolean needsExcludedLanguagesPatch(List<String> excludedTargetLanguages, FileInfo crowdinFile) {
+        if (excludedTargetLanguages == null || excludedTargetLanguages.isEmpty() || crowdinFile == null) {
+            return false;
+        }
+        List<String> crowdinExcludedTargetLanguages = (crowdinFile instanceof com.crowdin.client.sourcefiles.model.File)
+            ? ((com.crowdin.client.sourcefiles.model.File) crowdinFile).getExcludedTargetLanguages()
+            : null;
+        return !excludedTargetLanguages.equals(crowdinExcludedTargetLanguages);
+    }
+
+    /**
+     * @return parents of the files to add, whose missing directories are created before the files
+     */
+    public static List<CrowdinPath> parentsOfAdded(List<Entry> entries) {
+        List<CrowdinPath> parents = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.getAction() == Action.ADD) {
+                parents.add(entry.getPath().getParent());
+            }
+        }
+        return parents;
+    }
+
+    public static final class Entry {
+
+        private final VirtualFile source;
+        private final FileBean fileBean;
+        private final CrowdinPath path;
+        private final String exportPattern;
+        /** Content read during planning, null for skipped files, so the file is read once */
+        private final byte[] content;
+        /** Fingerprint of the content alone */
+        private final String contentHash;
+        private final String fingerprint;
+        private final FileInfo crowdinFile;
+        private final Action action;
+        /** The file was uploaded by an interrupted upload */
+        private final boolean resumed;
+        private final boolean patchExcludedLanguages;
+
+        public Entry(
+            VirtualFile source, FileBean fileBean, CrowdinPath path, String exportPattern, byte[] content, String contentHash, String fingerprint,
+            FileInfo crowdinFile, Action action, boolean resumed, boolean patchExcludedLanguages
+        ) {
+            this.source = source;
+            this.fileBean = fileBean;
+            this.path = path;
+            this.exportPattern = exportPattern;
+            this.content = content;
+            this.contentHash = contentHash;
+            this.fingerprint = fingerprint;
+            this.crowdinFile = crowdinFile;
+            this.action = action;
+            this.resumed = resumed;
+            this.patchExcludedLanguages = patchExcludedLanguages;
+        }
+
+        public VirtualFile getSource() {
+            return source;
+        }
+
+        public FileBean getFileBean() {
+            return fileBean;
+        }
+
+        public CrowdinPath getPath() {
+            return path;
+        }
+
+        public String getExportPattern() {
+            return exportPattern;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public FileInfo getCrowdinFile() {
+            return crowdinFile;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public boolean isResumed() {
+            return resumed;
+        }
+
+        public boolean isPatchExcludedLanguages() {
+            return patchExcludedLanguages;
+        }
+    }
+}
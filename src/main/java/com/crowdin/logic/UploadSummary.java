@@ -0,0 +1,90 @@
+package com.crowdin.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outcomes of the files of one bulk upload, collected from concurrent upload tasks and reported in one notification.
+ */
+public class UploadSummary {
+
+    private static final int MAX_REPORTED_FAILURES = 5;
+
+    public enum Outcome {
+        ADDED, UPDATED, SKIPPED
+    }
+
+    private final AtomicInteger added = new AtomicInteger();
+    private final AtomicInteger updated = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+    /** Path of the last recorded file, reported instead of the counts if the upload had only one file */
+    private volatile String lastFile;
+
+    public void record(Outcome outcome) {
+        this.record(outcome, null);
+    }
+
+    /**
+     * @param file path of the file as shown to the user
+     */
+    public void record(Outcome outcome, String file) {
+        if (outcome == Outcome.ADDED) {
+            added.incrementAndGet();
+        } else if (outcome == Outcome.UPDATED) {
+            updated.incrementAndGet();
+        } else {
+            skipped.incrementAndGet();
+        }
+        lastFile = file;
+    }
+
+    public void recordFailure(String message) {
+        failures.add(message);
+    }
+
+    public int getAdded() {
+        return added.get();
+    }
+
+    public int getUpdated() {
+        return updated.get();
+    }
+
+    public int getSkipped() {
+        return skipped.get();
+    }
+
+    public int getFailed() {
+        return failures.size();
+    }
+
+    public int getTotal() {
+        return this.getAdded() + this.getUpdated() + this.getSkipped() + this.getFailed();
+    }
+
+    /**
+     * @return path of the only file of the upload, or null if the upload had several files or the file failed
+     */
+    public String getSingleFile() {
+        return (this.getTotal() == 1 && this.getFailed() == 0) ? lastFile : null;
+    }
+
+    /**
+     * @return first failure messages, and the number of the rest
+     */
+    public String formatFailures() {
+        List<String> reported = new ArrayList<>();
+        for (String failure : failures) {
+            if (reported.size() == MAX_REPORTED_FAILURES) {
+                reported.add(String.format("and %d more", failures.size() - MAX_REPORTED_FAILURES));
+                break;
+            }
+            reported.add(failure);
+        }
+        return String.join("; ", reported);
+    }
+}
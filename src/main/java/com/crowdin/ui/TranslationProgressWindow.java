@@ -2,6 +2,7 @@ package com.crowdin.ui;
 
 import com.crowdin.client.translationstatus.model.FileProgress;
 import com.crowdin.client.translationstatus.model.LanguageProgress;
+import com.crowdin.util.LongObjectHashMap;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.util.IconLoader;
 import com.intellij.ui.JBColor;
@@ -30,7 +31,7 @@ public class TranslationProgressWindow {
 
     private String projectName;
     private Map<LanguageProgress, List<FileProgress>> progressData;
-    private Map<Long, String> fileNames;
+    private LongObjectHashMap<String> fileNames;
     private Map<String, String> languageNames;
 
     public TranslationProgressWindow() {
@@ -53,7 +54,7 @@ public class TranslationProgressWindow {
         this.groupByFiles = groupByFiles;
     }
 
-    public void setData(String projectName, Map<LanguageProgress, List<FileProgress>> progressData, Map<Long, String> fileNames, Map<String, String> languageNames) {
+    public void setData(String projectName, Map<LanguageProgress, List<FileProgress>> progressData, LongObjectHashMap<String> fileNames, Map<String, String> languageNames) {
         this.projectName = projectName;
         this.progressData = progressData;
         this.fileNames = fileNames;
@@ -81,7 +82,7 @@ public class TranslationProgressWindow {
             for (LanguageProgress langProgress : sortedLanguageProgresses) {
                 String languageName = languageNames.get(langProgress.getLanguageId());
                 for (FileProgress fileProgress : progressData.get(langProgress)) {
-                    String fileName = fileNames.get(fileProgress.getFileId());
+                    String fileName = fileNames.get(fileProgress.getFileId().longValue());
                     if (fileName == null) {
                         continue;
                     }
@@ -102,9 +103,9 @@ public class TranslationProgressWindow {
                     new TranslationProgressCellRenderer.CellData(languageName,
                         langProgress.getTranslationProgress() + "%", langProgress.getApprovalProgress() + "%"));
                 progressData.get(langProgress).stream()
-                    .filter(fileProgress -> fileNames.containsKey(fileProgress.getFileId()))
-                    .sorted(Comparator.comparing(l -> fileNames.get(l.getFileId())))
-                    .map(fileProgress -> new DefaultMutableTreeNode(new TranslationProgressCellRenderer.CellData(AllIcons.Actions.Annotate, fileNames.get(fileProgress.getFileId()),
+                    .filter(fileProgress -> fileNames.containsKey(fileProgress.getFileId().longValue()))
+                    .sorted(Comparator.comparing(l -> fileNames.get(l.getFileId().longValue())))
+                    .map(fileProgress -> new DefaultMutableTreeNode(new TranslationProgressCellRenderer.CellData(AllIcons.Actions.Annotate, fileNames.get(fileProgress.getFileId().longValue()),
                         fileProgress.getTranslationProgress() + "%", fileProgress.getApprovalProgress() + "%")))
                     .forEach(langNode::add);
                 root.add(langNode);
@@ -5,17 +5,20 @@ import com.crowdin.client.Crowdin;
 import com.crowdin.client.CrowdinProjectCacheProvider;
 import com.crowdin.client.CrowdinProperties;
 import com.crowdin.client.CrowdinPropertiesLoader;
+import com.crowdin.client.FileBean;
 import com.crowdin.client.languages.model.Language;
 import com.crowdin.client.sourcefiles.model.Branch;
-import com.crowdin.client.sourcefiles.model.FileInfo;
 import com.crowdin.client.translationstatus.model.FileProgress;
 import com.crowdin.client.translationstatus.model.LanguageProgress;
+import com.crowdin.logic.SourceFilesIndex;
 import com.crowdin.ui.TranslationProgressWindow;
 import com.crowdin.ui.TranslationProgressWindowFactory;
 import com.crowdin.util.ActionUtils;
 import com.crowdin.util.CrowdinFileUtil;
+import com.crowdin.util.CrowdinPath;
 import com.crowdin.util.FileUtil;
 import com.crowdin.util.GitUtil;
+import com.crowdin.util.LongObjectHashMap;
 import com.crowdin.util.NotificationUtil;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.actionSystem.AnActionEvent;
@@ -31,15 +34,12 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.crowdin.Constants.MESSAGES_BUNDLE;
-import static com.crowdin.util.FileUtil.joinPaths;
-import static com.crowdin.util.FileUtil.normalizePath;
-import static com.crowdin.util.FileUtil.sepAtStart;
-import static com.crowdin.util.FileUtil.unixPath;
 
 public class RefreshTranslationProgressAction extends BackgroundAction {
 
@@ -87,9 +87,10 @@ public class RefreshTranslationProgressAction extends BackgroundAction {
                 .collect(Collectors.toMap(Function.identity(), langProgress -> crowdin.getLanguageProgress(langProgress.getLanguageId())));
 
 
-            List<String> crowdinFilePaths = properties.getFiles().stream()
+            Map<FileBean, List<VirtualFile>> sources = ServiceManager.getService(project, SourceFilesIndex.class).getSourceFiles(root, properties.getFiles());
+            Set<CrowdinPath> crowdinFilePaths = properties.getFiles().stream()
                 .flatMap((fileBean) -> {
-                    List<VirtualFile> sourceFiles = FileUtil.getSourceFilesRec(root, fileBean.getSource());
+                    List<VirtualFile> sourceFiles = sources.get(fileBean);
                     return sourceFiles.stream().map(sourceFile -> {
                         if (properties.isPreserveHierarchy()) {
                             VirtualFile pathToPattern = FileUtil.getBaseDir(sourceFile, fileBean.getSource());
@@ -97,19 +98,21 @@ public class RefreshTranslationProgressAction extends BackgroundAction {
                             String relativePathToPattern = FileUtil.findRelativePath(FileUtil.getProjectBaseDir(project), pathToPattern);
                             String patternPathToFile = FileUtil.findRelativePath(pathToPattern, sourceFile.getParent());
 
-                            return  unixPath(sepAtStart(normalizePath(joinPaths(relativePathToPattern, patternPathToFile, sourceFile.getName()))));
+                            return CrowdinPath.of(relativePathToPattern, patternPathToFile, sourceFile.getName());
                         } else {
-                            return unixPath(sepAtStart(sourceFile.getName()));
+                            return CrowdinPath.of(sourceFile.getName());
                         }
                     });
                 })
-                .collect(Collectors.toList());
+                .collect(Collectors.toSet());
 
 
-            Map<Long, String> fileNames = crowdinProjectCache.getFileInfos(branch).values()
+            LongObjectHashMap<String> fileNames = crowdinProjectCache.getFileInfos(branch).values()
                 .stream()
-                .filter((fileInfo) -> crowdinFilePaths.contains(removeBranchNameInPath(fileInfo.getPath(), branchName)))
-                .collect(Collectors.toMap(FileInfo::getId, file -> removeBranchNameInPath(file.getPath(), branchName)));
+                .filter((fileInfo) -> crowdinFilePaths.contains(CrowdinPath.of(removeBranchNameInPath(fileInfo.getPath(), branchName))))
+                .collect(LongObjectHashMap::new,
+                    (names, file) -> names.put(file.getId().longValue(), removeBranchNameInPath(file.getPath(), branchName)),
+                    LongObjectHashMap::putAll);
             Map<String, String> languageNames = crowdinProjectCache.getProjectLanguages()
                 .stream()
                 .collect(Collectors.toMap(Language::getId, Language::getName));
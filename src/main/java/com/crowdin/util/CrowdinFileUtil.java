@@ -1,6 +1,5 @@
 package com.crowdin.util;
 
-import com.crowdin.client.languages.model.Language;
 import com.crowdin.client.sourcefiles.model.*;
 import lombok.NonNull;
 import org.apache.commons.lang.StringUtils;
@@ -8,8 +7,6 @@ import org.apache.commons.lang.StringUtils;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static com.crowdin.Constants.MESSAGES_BUNDLE;
 
@@ -18,51 +15,44 @@ public class CrowdinFileUtil {
     private CrowdinFileUtil() {}
 
     public static <F extends FileInfo>  Map<String, F> buildFilePaths(@NonNull List<F> files, @NonNull Map<Long, Directory> dirs) {
+        DirectoryPathResolver resolver = new DirectoryPathResolver(dirs);
         Map<String, F> filePaths = new HashMap<>();
         for (F file : files) {
-            StringBuilder sb = new StringBuilder(file.getName());
-            Long parentDirId = file.getDirectoryId();
-            while (parentDirId != null) {
-                Directory parentDir = dirs.get(parentDirId);
-                sb.insert(0, parentDir.getName() + java.io.File.separator);
-                parentDirId = parentDir.getDirectoryId();
-            }
-            sb.insert(0, java.io.File.separator);
-            filePaths.put(sb.toString(), file);
+            filePaths.put(resolver.resolve(file), file);
         }
         return filePaths;
     }
 
     public static Map<String, Directory> buildDirPaths(@NonNull Map<Long, Directory> dirs) {
+        DirectoryPathResolver resolver = new DirectoryPathResolver(dirs);
         Map<String, Directory> dirPaths = new HashMap<>();
         for (Directory dir : dirs.values()) {
-            StringBuilder sb = new StringBuilder(dir.getName());
-            Long parentDirId = dir.getDirectoryId();
-            while (parentDirId != null) {
-                Directory parentDir = dirs.get(parentDirId);
-                sb.insert(0, parentDir.getName() + java.io.File.separator);
-                parentDirId = parentDir.getDirectoryId();
-            }
-            sb.insert(0, java.io.File.separator);
-            dirPaths.put(sb.toString(), dir);
+            dirPaths.put(resolver.resolve(dir), dir);
         }
         return dirPaths;
     }
 
-    public static Map<Long, String> revDirPaths(@NonNull Map<String, Directory> dirs) {
-        return dirs.keySet().stream()
-            .collect(Collectors.toMap(path -> dirs.get(path).getId(), Function.identity()));
+    public static LongObjectHashMap<String> revDirPaths(@NonNull Map<String, Directory> dirs) {
+        LongObjectHashMap<String> dirPaths = new LongObjectHashMap<>(dirs.size());
+        for (Map.Entry<String, Directory> dir : dirs.entrySet()) {
+            if (dirPaths.put(dir.getValue().getId().longValue(), dir.getKey()) != null) {
+                throw new IllegalStateException(String.format("Duplicate directory id %d", dir.getValue().getId()));
+            }
+        }
+        return dirPaths;
     }
 
-    public static Map<String, String> buildAllProjectTranslationsWithSources(@NonNull List<File> sources, @NonNull Map<Long, String> dirPaths, @NonNull List<Language> projLanguages, LanguageMapping languageMapping) {
+    public static Map<String, String> buildAllProjectTranslationsWithSources(@NonNull List<File> sources, @NonNull LongObjectHashMap<String> dirPaths, @NonNull LanguagePlaceholderTable projLanguages) {
         Map<String, String> result = new HashMap<>();
+        Map<String, TranslationPatternTemplate> exportTemplates = new HashMap<>();
         for (File source : sources) {
-            String sourcePath = ((source.getDirectoryId() != null) ? dirPaths.get(source.getDirectoryId()) + java.io.File.separator : java.io.File.separator) + source.getName();
+            String sourcePath = ((source.getDirectoryId() != null) ? dirPaths.get(source.getDirectoryId().longValue()) + java.io.File.separator : java.io.File.separator) + source.getName();
             if (source.getExportOptions() != null) {
-                for (Language lang : projLanguages) {
-                    String langBasedPattern = PlaceholderUtil.replaceLanguagePlaceholders(getExportPattern(source.getExportOptions()), lang, languageMapping);
-                    String translationPath = PlaceholderUtil.replaceFilePlaceholders(langBasedPattern, sourcePath);
-                    result.put(translationPath, sourcePath);
+                TranslationPatternTemplate template = exportTemplates
+                    .computeIfAbsent(getExportPattern(source.getExportOptions()), TranslationPatternTemplate::parse)
+                    .withFile(sourcePath);
+                for (int i = 0; i < projLanguages.size(); i++) {
+                    result.put(template.render(projLanguages, i), sourcePath);
                 }
             } else {
                 result.put(sourcePath, sourcePath);
@@ -0,0 +1,151 @@
+package com.crowdin.util;
+
+import lombok.NonNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Canonical path of a file or directory in a Crowdin project, relative to the project or branch root.
+ * Both '/' and '\' are accepted as separators; the canonical form has '/' separators, starts with a separator,
+ * has no empty segments and no trailing separator. The root is "/".
+ * <p>
+ * Paths are normalized in one char scan, segments are split once and the hash is cached by the canonical string,
+ * so paths are cheap to compare and to use as keys of caches and indices.
+ */
+public final class CrowdinPath implements Comparable<CrowdinPath> {
+
+    public static final CrowdinPath ROOT = new CrowdinPath("/", new String[0]);
+
+    private final String path;
+    private final String[] segments;
+
+    private CrowdinPath(String path, String[] segments) {
+        this.path = path;
+        this.segments = segments;
+    }
+
+    /**
+     * @param parts path parts, joined with a separator. Empty parts are skipped
+     * @return canonical path
+     */
+    public static CrowdinPath of(@NonNull String... parts) {
+        int count = 0;
+        for (String part : parts) {
+            count += FileUtil.countSegments(part);
+        }
+        if (count == 0) {
+            return ROOT;
+        }
+        String[] segments = new String[count];
+        int index = 0;
+        for (String part : parts) {
+            index = FileUtil.splitSegments(part, segments, index);
+        }
+        return create(segments);
+    }
+
+    private static CrowdinPath create(String[] segments) {
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length() + 1;
+        }
+        StringBuilder sb = new StringBuilder(length);
+        for (String segment : segments) {
+            sb.append('/').append(segment);
+        }
+        return new CrowdinPath(sb.toString(), segments);
+    }
+
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    public String getSegment(int index) {
+        return segments[index];
+    }
+
+    /**
+     * @return read-only view of path segments
+     */
+    public List<String> getSegments() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return segments[index];
+            }
+
+            @Override
+            public int size() {
+                return segments.length;
+            }
+        };
+    }
+
+    /**
+     * @return last segment, empty string for the root
+     */
+    public String getName() {
+        return (segments.length > 0) ? segments[segments.length - 1] : "";
+    }
+
+    /**
+     * @return parent path, null for the root
+     */
+    public CrowdinPath getParent() {
+        return (segments.length > 0) ? this.subpath(segments.length - 1) : null;
+    }
+
+    /**
+     * @param count number of leading segments
+     * @return path of the first segments
+     */
+    public CrowdinPath subpath(int count) {
+        if (count == segments.length) {
+            return this;
+        }
+        return (count == 0) ? ROOT : create(Arrays.copyOf(segments, count));
+    }
+
+    public CrowdinPath resolve(@NonNull String relativePath) {
+        return of(path, relativePath);
+    }
+
+    public boolean isRoot() {
+        return segments.length == 0;
+    }
+
+    /**
+     * @return path with '/' separators, starting with a separator
+     */
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /**
+     * @return path with separators of the current OS, the format of paths in the project cache
+     */
+    public String toOsPath() {
+        return ('/' == java.io.File.separatorChar) ? path : path.replace('/', java.io.File.separatorChar);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof CrowdinPath && path.equals(((CrowdinPath) o).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public int compareTo(@NonNull CrowdinPath o) {
+        return path.compareTo(o.path);
+    }
+}
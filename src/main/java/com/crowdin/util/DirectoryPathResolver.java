@@ -0,0 +1,71 @@
+package com.crowdin.util;
+
+import com.crowdin.client.sourcefiles.model.Directory;
+import com.crowdin.client.sourcefiles.model.FileInfo;
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * Resolves full paths of Crowdin directories and files. The path of every directory is built once,
+ * by appending its name to the already resolved path of its parent, and is reused for all its files and subdirectories.
+ * Paths start with a separator, the same way as in {@link CrowdinFileUtil#buildFilePaths}.
+ */
+public class DirectoryPathResolver {
+
+    private static final String ROOT_PATH = "";
+
+    private final LongObjectHashMap<Directory> dirs;
+    private final LongObjectHashMap<String> paths;
+
+    public DirectoryPathResolver(@NonNull Map<Long, Directory> dirs) {
+        this.dirs = LongObjectHashMap.of(dirs);
+        this.paths = new LongObjectHashMap<>(dirs.size());
+    }
+
+    /**
+     * @param dirId directory id or null for the root
+     * @return path of the directory, empty string for the root
+     */
+    public String resolve(Long dirId) {
+        if (dirId == null) {
+            return ROOT_PATH;
+        }
+        String path = paths.get(dirId.longValue());
+        if (path != null) {
+            return path;
+        }
+        Deque<Directory> unresolved = new ArrayDeque<>();
+        String prefix = ROOT_PATH;
+        Long currentId = dirId;
+        while (currentId != null) {
+            String resolved = paths.get(currentId.longValue());
+            if (resolved != null) {
+                prefix = resolved;
+                break;
+            }
+            Directory current = dirs.get(currentId.longValue());
+            if (current == null) {
+                throw new IllegalStateException(String.format("Directory with id %d is not found", currentId));
+            }
+            unresolved.push(current);
+            currentId = current.getDirectoryId();
+        }
+        while (!unresolved.isEmpty()) {
+            Directory dir = unresolved.pop();
+            prefix = prefix + java.io.File.separator + dir.getName();
+            paths.put(dir.getId().longValue(), prefix);
+        }
+        return prefix;
+    }
+
+    public String resolve(@NonNull Directory dir) {
+        return this.resolve(dir.getId());
+    }
+
+    public String resolve(@NonNull FileInfo file) {
+        return this.resolve(file.getDirectoryId()) + java.io.File.separator + file.getName();
+    }
+}
@@ -4,11 +4,13 @@ import com.intellij.openapi.application.WriteAction;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.io.FileUtilRt;
 import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import lombok.NonNull;
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.SystemUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -33,6 +35,9 @@ public final class FileUtil {
     public static final String PATH_SEPARATOR = FileSystems.getDefault().getSeparator();
     public static final String PATH_SEPARATOR_REGEX = "\\".equals(PATH_SEPARATOR) ? "\\\\" : PATH_SEPARATOR;
 
+    private static final int MAX_FILE_PATH_REGEXES = 256;
+    private static final LruCache<Pair<String, Boolean>, Predicate<String>> FILE_PATH_REGEXES = new LruCache<>(MAX_FILE_PATH_REGEXES);
+
     private FileUtil() {
         throw new UnsupportedOperationException();
     }
@@ -47,15 +52,14 @@ public final class FileUtil {
     }
 
     public static String findRelativePath(@NonNull VirtualFile baseDir, @NonNull VirtualFile file) {
-        return StringUtils.removeStart(file.getCanonicalPath(), baseDir.getCanonicalPath())
-            .replaceAll("^[\\\\/]+", "");
+        return noSepAtStart(StringUtils.removeStart(file.getCanonicalPath(), baseDir.getCanonicalPath()));
 //        @AvailableSince("181.2784.17")
 //        return VfsUtil.findRelativePath(baseDir, file, java.io.File.separatorChar);
     }
 
     public static VirtualFile getBaseDir(VirtualFile file, String relativePath) {
         VirtualFile dir = file;
-        int depth = FileUtil.splitPath(relativePath.replaceAll("^[\\\\/]?\\*\\*[\\\\/]?", "")).length;
+        int depth = FileUtil.splitPath(noGlobstarAtStart(relativePath)).length;
         for (int i = depth; i > 0; i--) {
             if (dir.getParent() == null) {
                 break;
@@ -66,37 +70,22 @@ public final class FileUtil {
     }
 
     public static List<VirtualFile> getSourceFilesRec(VirtualFile root, String source) {
-        int sepIndex = source.indexOf("/");
-        List<VirtualFile> files = new ArrayList<>();
-        boolean isDir = sepIndex != -1;
-        String searchable = (isDir) ? source.substring(0, sepIndex) : source;
-        if ("**".equals(searchable) && isDir) {
-            for (VirtualFile child : root.getChildren()) {
-                if (child.isDirectory()) {
-                    files.addAll(getSourceFilesRec(child, source));
-                }
-            }
-            files.addAll(getSourceFilesRec(root, source.substring(sepIndex + 1)));
-        } else if (searchable.contains("*")) {
-            String searchableRegex = searchable.replace("*", ".*");
-            for (VirtualFile child : root.getChildren()) {
-                if (!child.isDirectory() && !isDir && child.getName().matches(searchableRegex)) {
-                    files.add(child);
-                } else if (child.isDirectory() && isDir && child.getName().matches(searchableRegex)) {
-                    files.addAll(getSourceFilesRec(child, source.substring(sepIndex+1)));
-                }
-            }
-        } else {
-            VirtualFile foundChild = root.findChild(searchable);
-            if (foundChild != null) {
-                if (foundChild.isDirectory() && isDir) {
-                    files.addAll(getSourceFilesRec(foundChild, source.substring(sepIndex+1)));
-                } else if (!foundChild.isDirectory() && !isDir) {
-                    files.add(foundChild);
-                }
-            }
+        return GlobMatcher.compile(source).find(root);
+    }
+
+    /**
+     * Checks whether the file would be found by {@link #getSourceFilesRec} without walking the tree
+     * @param root directory the pattern is relative to
+     * @param source source pattern
+     * @param file file to check
+     * @return true if the file matches the pattern
+     */
+    public static boolean matchesSourcePattern(VirtualFile root, String source, VirtualFile file) {
+        if (file.isDirectory()) {
+            return false;
         }
-        return files;
+        String relativePath = VfsUtilCore.getRelativePath(file, root, '/');
+        return relativePath != null && GlobMatcher.compile(source).matches(relativePath.split("/"));
     }
 
     public static List<File> walkDir(Path dir) {
@@ -111,6 +100,10 @@ public final class FileUtil {
     }
 
     public static Predicate<String> filePathRegex(String filePathPattern, boolean preserveHierarchy) {
+        return FILE_PATH_REGEXES.computeIfAbsent(Pair.of(filePathPattern, preserveHierarchy), key -> compileFilePathRegex(filePathPattern, preserveHierarchy));
+    }
+
+    private static Predicate<String> compileFilePathRegex(String filePathPattern, boolean preserveHierarchy) {
         if (preserveHierarchy) {
             return Pattern.compile("^" + PlaceholderUtil.formatSourcePatternForRegex(noSepAtStart(filePathPattern)) + "$").asPredicate();
         } else {
@@ -170,15 +163,38 @@ public final class FileUtil {
     }
 
     public static String normalizePath(String path) {
-        return path.replaceAll("[\\\\/]+", SystemUtils.IS_OS_WINDOWS ? "\\\\" : "/");
+        return replaceSeparators(path, SystemUtils.IS_OS_WINDOWS ? '\\' : '/');
     }
 
     public static String unixPath(String path) {
-        return path.replaceAll("[\\\\/]+", "/");
+        return replaceSeparators(path, '/');
     }
 
+    /**
+     * Splits the path the same way as {@code path.split("[\\\\/]+")}: a leading separator gives an empty first segment,
+     * trailing separators are dropped
+     */
     public static String[] splitPath(String path) {
-        return path.split("[\\\\/]+");
+        int end = path.length();
+        while (end > 0 && isSeparator(path.charAt(end - 1))) {
+            end--;
+        }
+        if (end == 0) {
+            return (path.isEmpty()) ? new String[] {path} : new String[0];
+        }
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < end; i++) {
+            if (isSeparator(path.charAt(i))) {
+                segments.add(path.substring(start, i));
+                while (isSeparator(path.charAt(i + 1))) {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        segments.add(path.substring(start, end));
+        return segments.toArray(new String[0]);
     }
 
     public static String joinPaths(String... paths) {
@@ -186,7 +202,11 @@ public final class FileUtil {
     }
 
     public static String noSepAtStart(String path) {
-        return path.replaceAll("^[\\\\/]+", "");
+        int start = 0;
+        while (start < path.length() && isSeparator(path.charAt(start))) {
+            start++;
+        }
+        return path.substring(start);
     }
 
     public static String sepAtStart(String path) {
@@ -194,10 +214,96 @@ public final class FileUtil {
     }
 
     public static String noSepAtEnd(String path) {
-        return path.replaceAll("[\\\\/]+$", "");
+        int end = path.length();
+        while (end > 0 && isSeparator(path.charAt(end - 1))) {
+            end--;
+        }
+        return path.substring(0, end);
     }
 
     public static String sepAtEnd(String path) {
         return noSepAtEnd(path) + PATH_SEPARATOR;
     }
+
+    static boolean isSeparator(char c) {
+        return c == '/' || c == '\\';
+    }
+
+    /**
+     * @return number of non-empty segments of the path
+     */
+    static int countSegments(String path) {
+        int count = 0;
+        boolean inSegment = false;
+        for (int i = 0; i < path.length(); i++) {
+            boolean separator = isSeparator(path.charAt(i));
+            if (!separator && !inSegment) {
+                count++;
+            }
+            inSegment = !separator;
+        }
+        return count;
+    }
+
+    /**
+     * Puts non-empty segments of the path into the array
+     * @return index after the last put segment
+     */
+    static int splitSegments(String path, String[] segments, int index) {
+        int start = -1;
+        for (int i = 0; i <= path.length(); i++) {
+            boolean separator = i == path.length() || isSeparator(path.charAt(i));
+            if (separator && start != -1) {
+                segments[index++] = path.substring(start, i);
+                start = -1;
+            } else if (!separator && start == -1) {
+                start = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Collapses every run of separators into one separator
+     */
+    private static String replaceSeparators(String path, char separator) {
+        int i = 0;
+        while (i < path.length() && !(isSeparator(path.charAt(i))
+            && (path.charAt(i) != separator || (i + 1 < path.length() && isSeparator(path.charAt(i + 1)))))) {
+            i++;
+        }
+        if (i == path.length()) {
+            return path;
+        }
+        StringBuilder sb = new StringBuilder(path.length());
+        sb.append(path, 0, i);
+        while (i < path.length()) {
+            char c = path.charAt(i);
+            if (isSeparator(c)) {
+                sb.append(separator);
+                while (i + 1 < path.length() && isSeparator(path.charAt(i + 1))) {
+                    i++;
+                }
+            } else {
+                sb.append(c);
+            }
+            i++;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Removes a leading '**' segment of a source pattern
+     */
+    private static String noGlobstarAtStart(String pattern) {
+        int start = (!pattern.isEmpty() && isSeparator(pattern.charAt(0))) ? 1 : 0;
+        if (!pattern.startsWith("**", start)) {
+            return pattern;
+        }
+        start += 2;
+        if (start < pattern.length() && isSeparator(pattern.charAt(start))) {
+            start++;
+        }
+        return pattern.substring(start);
+    }
 }
@@ -0,0 +1,277 @@
+package com.crowdin.util;
+
+import com.intellij.openapi.vfs.VirtualFile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Source pattern compiled into per-segment matchers. Segments are separated by '/'. Supported syntax:
+ * '**' as a whole directory segment matches any number of directories, '*' matches any characters within a name,
+ * '?' matches exactly one character and '\' escapes the next character.
+ * <p>
+ * Matching runs over a set of active segments (a small NFA packed into a long), so a directory is entered only if some segment
+ * of the pattern can still continue in it, and names are compared without any regular expressions.
+ */
+public final class GlobMatcher {
+
+    private static final int MAX_SEGMENTS = Long.SIZE - 1;
+    private static final int MAX_COMPILED = 256;
+    private static final LruCache<String, GlobMatcher> COMPILED = new LruCache<>(MAX_COMPILED);
+
+    private final String pattern;
+    private final Segment[] segments;
+    private final long initialState;
+
+    private GlobMatcher(String pattern) {
+        this.pattern = pattern;
+        String[] parts = pattern.split("/", -1);
+        if (parts.length > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("Too many segments in source pattern: " + pattern);
+        }
+        this.segments = new Segment[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            this.segments[i] = ("**".equals(parts[i]) && i < parts.length - 1)
+                ? Segment.GLOBSTAR
+                : Segment.compile(parts[i]);
+        }
+        this.initialState = this.closure(1L);
+    }
+
+    /**
+     * @param pattern source pattern, relative to the directory it is applied to
+     * @return compiled matcher, shared between callers of the same pattern while it's recently used
+     */
+    public static GlobMatcher compile(String pattern) {
+        return COMPILED.computeIfAbsent(pattern, GlobMatcher::new);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return name of matching files if the last segment of the pattern has no wildcards, null otherwise
+     */
+    public String getFileName() {
+        return segments[segments.length - 1].literal;
+    }
+
+    /**
+     * @return true if some directory segment of the pattern has wildcards
+     */
+    public boolean hasDirectoryWildcards() {
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (segments[i].literal == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return names of the directories the pattern names literally, without wildcards
+     */
+    public Set<String> getDirectoryNames() {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (segments[i].literal != null) {
+                names.add(segments[i].literal);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return state for the directory the pattern is relative to
+     */
+    public long initialState() {
+        return initialState;
+    }
+
+    /**
+     * @param state state of the parent directory
+     * @param name directory name
+     * @return state inside the directory, 0 if no file inside of it can match
+     */
+    public long enterDirectory(long state, String name) {
+        long next = 0;
+        for (long rest = state; rest != 0; rest &= rest - 1) {
+            int i = Long.numberOfTrailingZeros(rest);
+            Segment segment = segments[i];
+            if (segment == Segment.GLOBSTAR) {
+                next |= 1L << i;
+            } else if (i < segments.length - 1 && segment.matches(name)) {
+                next |= 1L << (i + 1);
+            }
+        }
+        return this.closure(next);
+    }
+
+    /**
+     * @param state state of the parent directory
+     * @param name directory name
+     * @return true if an active segment of the pattern names the directory literally, without wildcards
+     */
+    public boolean namesDirectory(long state, String name) {
+        for (long rest = state; rest != 0; rest &= rest - 1) {
+            int i = Long.numberOfTrailingZeros(rest);
+            if (i < segments.length - 1 && name.equals(segments[i].literal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param state state of the parent directory
+     * @param name file name
+     * @return true if the file matches the pattern
+     */
+    public boolean acceptsFile(long state, String name) {
+        int last = segments.length - 1;
+        return (state & (1L << last)) != 0 && segments[last].matches(name);
+    }
+
+    /**
+     * @param relativePath path relative to the directory the pattern is applied to. Both '/' and '\' are treated as separators
+     * @return true if the path matches the pattern
+     */
+    public boolean matches(String relativePath) {
+        return this.matches(FileUtil.splitPath(FileUtil.noSepAtStart(relativePath)));
+    }
+
+    public boolean matches(String[] pathSegments) {
+        if (pathSegments.length == 0 || pathSegments[0].isEmpty()) {
+            return false;
+        }
+        long state = initialState;
+        for (int i = 0; i < pathSegments.length - 1 && state != 0; i++) {
+            state = this.enterDirectory(state, pathSegments[i]);
+        }
+        return this.acceptsFile(state, pathSegments[pathSegments.length - 1]);
+    }
+
+    /**
+     * Walks only the directories that can contain matching files
+     * @param root directory the pattern is relative to
+     * @return matching files in the walk order
+     */
+    public List<VirtualFile> find(VirtualFile root) {
+        List<VirtualFile> files = new ArrayList<>();
+        this.find(root, initialState, files);
+        return files;
+    }
+
+    private void find(VirtualFile dir, long state, List<VirtualFile> files) {
+        int single = Long.numberOfTrailingZeros(state);
+        if (Long.bitCount(state) == 1 && segments[single].literal != null) {
+            VirtualFile child = dir.findChild(segments[single].literal);
+            if (child != null) {
+                this.visit(child, state, files);
+            }
+            return;
+        }
+        for (VirtualFile child : dir.getChildren()) {
+            this.visit(child, state, files);
+        }
+    }
+
+    private void visit(VirtualFile child, long state, List<VirtualFile> files) {
+        if (child.isDirectory()) {
+            long next = this.enterDirectory(state, child.getName());
+            if (next != 0) {
+                this.find(child, next, files);
+            }
+        } else if (this.acceptsFile(state, child.getName())) {
+            files.add(child);
+        }
+    }
+
+    private long closure(long state) {
+        for (int i = 0; i < segments.length - 1; i++) {
+            if ((state & (1L << i)) != 0 && segments[i] == Segment.GLOBSTAR) {
+                state |= 1L << (i + 1);
+            }
+        }
+        return state;
+    }
+
+    private static final class Segment {
+
+        private static final int ANY = -1;
+        private static final int ONE = -2;
+
+        private static final Segment GLOBSTAR = new Segment(null, null);
+
+        /** Name to compare with, if the segment has no wildcards */
+        private final String literal;
+        /** Characters of the segment, with {@link #ANY} and {@link #ONE} for wildcards */
+        private final int[] glob;
+
+        private Segment(String literal, int[] glob) {
+            this.literal = literal;
+            this.glob = glob;
+        }
+
+        private static Segment compile(String part) {
+            int[] glob = new int[part.length()];
+            int length = 0;
+            boolean wildcards = false;
+            StringBuilder literal = new StringBuilder(part.length());
+            for (int i = 0; i < part.length(); i++) {
+                char c = part.charAt(i);
+                if (c == '\\' && i + 1 < part.length()) {
+                    c = part.charAt(++i);
+                    glob[length++] = c;
+                    literal.append(c);
+                } else if (c == '*') {
+                    if (length == 0 || glob[length - 1] != ANY) {
+                        glob[length++] = ANY;
+                    }
+                    wildcards = true;
+                } else if (c == '?') {
+                    glob[length++] = ONE;
+                    wildcards = true;
+                } else {
+                    glob[length++] = c;
+                    literal.append(c);
+                }
+            }
+            return (wildcards)
+                ? new Segment(null, Arrays.copyOf(glob, length))
+                : new Segment(literal.toString(), null);
+        }
+
+        private boolean matches(String name) {
+            if (literal != null) {
+                return literal.equals(name);
+            }
+            int p = 0;
+            int n = 0;
+            int starP = -1;
+            int starN = 0;
+            while (n < name.length()) {
+                if (p < glob.length && glob[p] != ANY && (glob[p] == ONE || glob[p] == name.charAt(n))) {
+                    p++;
+                    n++;
+                } else if (p < glob.length && glob[p] == ANY) {
+                    starP = p++;
+                    starN = n;
+                } else if (starP != -1) {
+                    p = starP + 1;
+                    n = ++starN;
+                } else {
+                    return false;
+                }
+            }
+            while (p < glob.length && glob[p] == ANY) {
+                p++;
+            }
+            return p == glob.length;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.crowdin.util;
+
+import com.crowdin.client.languages.model.Language;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Values of language placeholders for every project language, resolved once from the server language mapping and language defaults.
+ * Values of a language are kept in a dense array indexed by {@link TranslationPatternTemplate.Placeholder#ordinal()}.
+ */
+public final class LanguagePlaceholderTable {
+
+    private final List<Language> languages;
+    private final String[][] values;
+    private final Map<String, Integer> indicesById;
+
+    private LanguagePlaceholderTable(List<Language> languages, String[][] values, Map<String, Integer> indicesById) {
+        this.languages = languages;
+        this.values = values;
+        this.indicesById = indicesById;
+    }
+
+    /**
+     * @param languages project languages
+     * @param languageMapping server language mapping. May be null
+     * @return immutable table
+     */
+    public static LanguagePlaceholderTable build(@NonNull List<Language> languages, LanguageMapping languageMapping) {
+        LanguageMapping mapping = (languageMapping != null) ? languageMapping : LanguageMapping.fromServerLanguageMapping(null);
+        TranslationPatternTemplate.Placeholder[] placeholders = TranslationPatternTemplate.Placeholder.values();
+        String[][] values = new String[languages.size()][];
+        Map<String, Integer> indicesById = new HashMap<>(languages.size() * 2);
+        for (int i = 0; i < languages.size(); i++) {
+            Language lang = languages.get(i);
+            values[i] = new String[placeholders.length];
+            for (TranslationPatternTemplate.Placeholder placeholder : placeholders) {
+                if (!placeholder.isFileDependent()) {
+                    values[i][placeholder.ordinal()] = placeholder.value(lang, mapping);
+                }
+            }
+            indicesById.putIfAbsent(lang.getId(), i);
+        }
+        return new LanguagePlaceholderTable(Collections.unmodifiableList(new ArrayList<>(languages)), values, indicesById);
+    }
+
+    public List<Language> getLanguages() {
+        return languages;
+    }
+
+    public int size() {
+        return languages.size();
+    }
+
+    public Language getLanguage(int index) {
+        return languages.get(index);
+    }
+
+    /**
+     * @return index of the language in the table, -1 if it's not a project language
+     */
+    public int indexOf(Language lang) {
+        Integer index = indicesById.get(lang.getId());
+        return (index != null) ? index : -1;
+    }
+
+    public String get(int index, TranslationPatternTemplate.Placeholder placeholder) {
+        if (placeholder.isFileDependent()) {
+            throw new IllegalArgumentException("Not a language placeholder: " + placeholder.getText());
+        }
+        return values[index][placeholder.ordinal()];
+    }
+
+    String[] values(int index) {
+        return values[index];
+    }
+}
@@ -0,0 +1,232 @@
+package com.crowdin.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Open-addressing hash map with primitive long keys. Keys are stored unboxed and entries are probed linearly,
+ * so lookups allocate nothing and do not follow node chains.
+ * Null keys and null values are not supported. Not thread-safe.
+ * @param <V> type of values
+ */
+public class LongObjectHashMap<V> extends AbstractMap<Long, V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        this.allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @return the given map if it is already a {@link LongObjectHashMap}, its copy otherwise
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> LongObjectHashMap<V> of(Map<Long, V> map) {
+        if (map instanceof LongObjectHashMap) {
+            return (LongObjectHashMap<V>) map;
+        }
+        LongObjectHashMap<V> result = new LongObjectHashMap<>(map.size());
+        result.putAll(map);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = this.find(key);
+        return (slot >= 0) ? (V) values[slot] : null;
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        V value = this.get(key);
+        return (value != null) ? value : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return this.find(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not supported");
+        }
+        int slot = mix(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            this.rehash(values.length * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = this.find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        this.shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    @Override
+    public V get(Object key) {
+        return (key instanceof Long) ? this.get(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Long && this.containsKey(((Long) key).longValue());
+    }
+
+    @Override
+    public V put(Long key, V value) {
+        return this.put(key.longValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return (key instanceof Long) ? this.remove(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<Long, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    private int find(long key) {
+        int slot = mix(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the entry in the given slot and moves the following entries of the same probe sequence back,
+     * so that lookups never stop at the freed slot.
+     */
+    private void shiftBack(int slot) {
+        int free = slot;
+        int current = (slot + 1) & mask;
+        while (values[current] != null) {
+            int home = mix(keys[current]) & mask;
+            if (((current - home) & mask) >= ((current - free) & mask)) {
+                keys[free] = keys[current];
+                values[free] = values[current];
+                free = current;
+            }
+            current = (current + 1) & mask;
+        }
+        values[free] = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        this.allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                this.put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    static int capacityFor(int expectedSize) {
+        long required = (long) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR) + 1;
+        int capacity = Integer.highestOneBit((int) Math.min(required, 1 << 30));
+        return (capacity < required) ? Math.min(capacity << 1, 1 << 30) : capacity;
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private class EntrySet extends AbstractSet<Entry<Long, V>> {
+
+        @Override
+        public Iterator<Entry<Long, V>> iterator() {
+            return new Iterator<Entry<Long, V>>() {
+                private int next = this.advance(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next < values.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Entry<Long, V> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Entry<Long, V> entry = new SimpleImmutableEntry<>(keys[next], (V) values[next]);
+                    next = this.advance(next + 1);
+                    return entry;
+                }
+
+                private int advance(int from) {
+                    while (from < values.length && values[from] == null) {
+                        from++;
+                    }
+                    return from;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.crowdin.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded map of computed values, the least recently used entry is evicted when the cache is full.
+ * Keeps application-wide caches of values compiled from project settings from growing with every settings change.
+ * Thread-safe.
+ */
+public final class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    public LruCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries should be positive: " + maxEntries);
+        }
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return this.size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The value is computed outside the lock, so concurrent callers may compute it twice, but they get the same value
+     * @return cached value of the key, computed if it's missing
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> compute) {
+        synchronized (entries) {
+            V value = entries.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        V computed = compute.apply(key);
+        synchronized (entries) {
+            V value = entries.putIfAbsent(key, computed);
+            return (value != null) ? value : computed;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
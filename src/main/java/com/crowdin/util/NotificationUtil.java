@@ -10,8 +10,8 @@ import com.intellij.openapi.project.Project;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 public final class NotificationUtil {
 
@@ -23,7 +23,7 @@ public final class NotificationUtil {
         new NotificationGroup("Crowdin",
             NotificationDisplayType.NONE, true);
     private static boolean isDebug = false;
-    private static SimpleDateFormat logDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final DateTimeFormatter LOG_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
 
 
     private static final String TITLE = "Crowdin";
@@ -66,7 +66,7 @@ public final class NotificationUtil {
 
     private static void logMessage(@NotNull Project project, @NotNull String message, @NotNull NotificationType type, String level) {
         if (isDebug) {
-            String formattedMessage = String.format("%s %s : %s", logDateFormat.format(new Date()), level, message);
+            String formattedMessage = String.format("%s %s : %s", LOG_DATE_FORMAT.format(LocalDateTime.now()), level, message);
             ApplicationManager.getApplication().invokeLater(() -> {
                 Notification notification = GROUP_DISPLAY_ID_INFO_LOG.createNotification(TITLE, formattedMessage, type, null);
                 Notifications.Bus.notify(notification, project);
@@ -0,0 +1,143 @@
+package com.crowdin.util;
+
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie of path segments in reversed order. Answers suffix queries in time proportional to the depth of the queried path
+ * instead of comparing it with every stored path.
+ * A path is a suffix of another one only on a segment boundary, both '/' and '\' are treated as separators.
+ * Not thread-safe.
+ * @param <V> type of values stored for paths
+ */
+public class PathSuffixIndex<V> {
+
+    private final Node<V> root = new Node<>();
+
+    public void add(@NonNull String path, @NonNull V value) {
+        Node<V> node = root;
+        node.subtreeSize++;
+        int end = path.length();
+        while (true) {
+            end = skipSeparators(path, end);
+            if (end == 0) {
+                break;
+            }
+            int start = segmentStart(path, end);
+            node = node.children.computeIfAbsent(path.substring(start, end), segment -> new Node<>());
+            node.subtreeSize++;
+            end = start;
+        }
+        if (node.values.isEmpty()) {
+            node.values = new ArrayList<>(1);
+        }
+        node.values.add(value);
+    }
+
+    public int size() {
+        return root.subtreeSize;
+    }
+
+    /**
+     * @return values of stored paths, which are suffixes of the given path. More than one value means the path is ambiguous
+     */
+    public List<V> findSuffixesOf(@NonNull String path) {
+        List<V> found = new ArrayList<>();
+        Node<V> node = root;
+        int end = path.length();
+        while (true) {
+            end = skipSeparators(path, end);
+            if (end == 0) {
+                break;
+            }
+            int start = segmentStart(path, end);
+            node = node.children.get(path.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            found.addAll(node.values);
+            end = start;
+        }
+        return found;
+    }
+
+    /**
+     * @return number of stored paths, which end with the given path
+     */
+    public int countEndingWith(@NonNull String path) {
+        Node<V> node = this.find(path);
+        return (node != null) ? node.subtreeSize : 0;
+    }
+
+    /**
+     * @param limit maximum number of values to return
+     * @return values of stored paths, which end with the given path
+     */
+    public List<V> findEndingWith(@NonNull String path, int limit) {
+        Node<V> node = this.find(path);
+        if (node == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<V> found = new ArrayList<>(Math.min(limit, node.subtreeSize));
+        Deque<Node<V>> nodes = new ArrayDeque<>();
+        nodes.push(node);
+        while (!nodes.isEmpty() && found.size() < limit) {
+            Node<V> current = nodes.pop();
+            for (V value : current.values) {
+                if (found.size() == limit) {
+                    break;
+                }
+                found.add(value);
+            }
+            current.children.values().forEach(nodes::push);
+        }
+        return found;
+    }
+
+    private Node<V> find(String path) {
+        Node<V> node = root;
+        int end = path.length();
+        while (node != null) {
+            end = skipSeparators(path, end);
+            if (end == 0) {
+                break;
+            }
+            int start = segmentStart(path, end);
+            node = node.children.get(path.substring(start, end));
+            end = start;
+        }
+        return (node != root) ? node : null;
+    }
+
+    private static int skipSeparators(String path, int end) {
+        while (end > 0 && isSeparator(path.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static int segmentStart(String path, int end) {
+        int start = end;
+        while (start > 0 && !isSeparator(path.charAt(start - 1))) {
+            start--;
+        }
+        return start;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '/' || c == '\\';
+    }
+
+    private static class Node<V> {
+        private final Map<String, Node<V>> children = new HashMap<>(2);
+        private List<V> values = Collections.emptyList();
+        private int subtreeSize;
+    }
+}
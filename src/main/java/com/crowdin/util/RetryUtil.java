@@ -19,7 +19,7 @@ public final class RetryUtil {
             try {
                 return func.call();
             } catch (Exception e) {
-                if (i + i == retries) {
+                if (i == retries - 1) {
                     throw e;
                 }
                 Thread.sleep(100);
@@ -0,0 +1,206 @@
+package com.crowdin.util;
+
+import com.crowdin.util.TranslationPatternTemplate.Placeholder;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translation pattern compiled into one regular expression, with a capture group for every placeholder.
+ * Language placeholders are matched against the values of the project languages, and captured values are mapped back
+ * to the language through a hash lookup, so classifying a path takes one match instead of rendering the pattern for every language.
+ * <p>
+ * Separators are matched loosely, the way {@link java.nio.file.Paths} normalizes rendered paths,
+ * so a match is a candidate that should be confirmed by rendering the pattern for the matched source and language.
+ */
+public final class TranslationPathMatcher {
+
+    private static final String KEY_SEPARATOR = "\0";
+
+    private final LanguagePlaceholderTable languages;
+    private final Pattern regex;
+    /** Language placeholder of every 'l{i}' group */
+    private final List<Placeholder> languageGroups;
+    /** File placeholder of every 'f{i}' group */
+    private final List<Placeholder> fileGroups;
+    /** Indices of languages by placeholder value, in the table order */
+    private final Map<Placeholder, Map<String, int[]>> languageIndices;
+
+    private TranslationPathMatcher(
+        LanguagePlaceholderTable languages, Pattern regex, List<Placeholder> languageGroups, List<Placeholder> fileGroups
+    ) {
+        this.languages = languages;
+        this.regex = regex;
+        this.languageGroups = languageGroups;
+        this.fileGroups = fileGroups;
+        this.languageIndices = new EnumMap<>(Placeholder.class);
+        for (Placeholder placeholder : languageGroups) {
+            Map<String, List<Integer>> indices = new HashMap<>();
+            for (int i = 0; i < languages.size(); i++) {
+                indices.computeIfAbsent(languages.get(i, placeholder), k -> new ArrayList<>()).add(i);
+            }
+            Map<String, int[]> packed = new HashMap<>(indices.size() * 2);
+            indices.forEach((value, list) -> packed.put(value, list.stream().mapToInt(Integer::intValue).toArray()));
+            this.languageIndices.put(placeholder, packed);
+        }
+    }
+
+    /**
+     * @param template translation pattern, relative to the base directory of its source files
+     * @param languages project languages
+     */
+    public static TranslationPathMatcher compile(@NonNull TranslationPatternTemplate template, @NonNull LanguagePlaceholderTable languages) {
+        List<Placeholder> languageGroups = new ArrayList<>();
+        List<Placeholder> fileGroups = new ArrayList<>();
+        StringBuilder regex = new StringBuilder("^/*");
+        for (int i = 0; i < template.segmentCount(); i++) {
+            String literal = template.literal(i);
+            if (literal != null) {
+                appendLiteral(regex, literal);
+                continue;
+            }
+            Placeholder placeholder = template.placeholder(i);
+            List<Placeholder> groups = (placeholder.isFileDependent()) ? fileGroups : languageGroups;
+            String prefix = (placeholder.isFileDependent()) ? "f" : "l";
+            int group = groups.indexOf(placeholder);
+            if (group != -1) {
+                regex.append("\\k<").append(prefix).append(group).append('>');
+                continue;
+            }
+            groups.add(placeholder);
+            regex.append("(?<").append(prefix).append(groups.size() - 1).append('>');
+            if (placeholder == Placeholder.ORIGINAL_PATH) {
+                regex.append(".*?");
+            } else if (placeholder.isFileDependent()) {
+                regex.append("[^/]*");
+            } else {
+                appendAlternatives(regex, languages, placeholder);
+            }
+            regex.append(')');
+        }
+        regex.append('$');
+        return new TranslationPathMatcher(languages, Pattern.compile(regex.toString()), languageGroups, fileGroups);
+    }
+
+    /**
+     * @param relativePath path relative to the base directory, with '/' separators
+     * @return candidate language and file placeholder values, null if the path can't be a translation of the pattern
+     */
+    public Match match(@NonNull String relativePath) {
+        Matcher matcher = regex.matcher(relativePath);
+        if (!matcher.matches()) {
+            return null;
+        }
+        int languageIndex = this.findLanguage(matcher);
+        if (languageIndex == -1) {
+            return null;
+        }
+        String[] fileValues = new String[fileGroups.size()];
+        for (int i = 0; i < fileValues.length; i++) {
+            fileValues[i] = matcher.group("f" + i);
+        }
+        return new Match(languageIndex, String.join(KEY_SEPARATOR, fileValues));
+    }
+
+    /**
+     * @param sourcePath path of the source file
+     * @return key of the file placeholder values, equal to {@link Match#getFileKey()} of translations of the source
+     */
+    public String fileKey(@NonNull String sourcePath) {
+        String[] fileValues = new String[fileGroups.size()];
+        for (int i = 0; i < fileValues.length; i++) {
+            fileValues[i] = fileGroups.get(i).value(sourcePath);
+        }
+        return String.join(KEY_SEPARATOR, fileValues);
+    }
+
+    private int findLanguage(Matcher matcher) {
+        if (languageGroups.isEmpty()) {
+            return (languages.size() > 0) ? 0 : -1;
+        }
+        int[] candidates = languageIndices.get(languageGroups.get(0)).get(matcher.group("l0"));
+        if (candidates == null) {
+            return -1;
+        }
+        for (int candidate : candidates) {
+            boolean matches = true;
+            for (int g = 1; g < languageGroups.size() && matches; g++) {
+                matches = Objects.equals(languages.get(candidate, languageGroups.get(g)), matcher.group("l" + g));
+            }
+            if (matches) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendLiteral(StringBuilder regex, String literal) {
+        int start = 0;
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '/' || c == '\\') {
+                if (start < i) {
+                    regex.append(Pattern.quote(literal.substring(start, i)));
+                }
+                regex.append("/*");
+                start = i + 1;
+            }
+        }
+        if (start < literal.length()) {
+            regex.append(Pattern.quote(literal.substring(start)));
+        }
+    }
+
+    private static void appendAlternatives(StringBuilder regex, LanguagePlaceholderTable languages, Placeholder placeholder) {
+        Set<String> values = new LinkedHashSet<>();
+        for (int i = 0; i < languages.size(); i++) {
+            if (languages.get(i, placeholder) != null) {
+                values.add(languages.get(i, placeholder));
+            }
+        }
+        String[] sorted = values.toArray(new String[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(String::length).reversed());
+        for (int i = 0; i < sorted.length; i++) {
+            if (i > 0) {
+                regex.append('|');
+            }
+            regex.append(Pattern.quote(sorted[i]));
+        }
+    }
+
+    public static final class Match {
+
+        private final int languageIndex;
+        private final String fileKey;
+
+        private Match(int languageIndex, String fileKey) {
+            this.languageIndex = languageIndex;
+            this.fileKey = fileKey;
+        }
+
+        /**
+         * @return index of the language in the table
+         */
+        public int getLanguageIndex() {
+            return languageIndex;
+        }
+
+        /**
+         * @return key of the captured file placeholder values
+         */
+        public String getFileKey() {
+            return fileKey;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.crowdin.util;
+
+import com.crowdin.client.languages.model.Language;
+import lombok.NonNull;
+import org.apache.commons.io.FilenameUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translation pattern parsed into literal and placeholder segments.
+ * Rendering appends every segment once, instead of running a replace pass over the whole pattern for every placeholder.
+ * File placeholders are usually resolved once per source with {@link #withFile(String)}, language placeholders per language with {@link #render(LanguagePlaceholderTable, int)}.
+ * Placeholders that are not resolved by a render keep their original text.
+ */
+public final class TranslationPatternTemplate {
+
+    public enum Placeholder {
+        LANGUAGE_ID("language_id", false),
+        ANDROID_CODE("android_code", false),
+        LANGUAGE("language", false),
+        LOCALE("locale", false),
+        LOCALE_WITH_UNDERSCORE("locale_with_underscore", false),
+        THREE_LETTERS_CODE("three_letters_code", false),
+        TWO_LETTERS_CODE("two_letters_code", false),
+        OSX_CODE("osx_code", false),
+        OSX_LOCALE("osx_locale", false),
+        FILE_EXTENSION("file_extension", true),
+        FILE_NAME("file_name", true),
+        ORIGINAL_FILE_NAME("original_file_name", true),
+        ORIGINAL_PATH("original_path", true);
+
+        private static final String LANGUAGE_NAME_2 = "name";
+
+        private final String name;
+        private final String text;
+        private final boolean fileDependent;
+
+        Placeholder(String name, boolean fileDependent) {
+            this.name = name;
+            this.text = "%" + name + "%";
+            this.fileDependent = fileDependent;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public boolean isFileDependent() {
+            return fileDependent;
+        }
+
+        private static Placeholder find(String pattern, int start, int end) {
+            for (Placeholder placeholder : values()) {
+                if (placeholder.name.length() == end - start && pattern.startsWith(placeholder.name, start)) {
+                    return placeholder;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return value of the language placeholder, from the language mapping if it has one
+         */
+        public String value(Language lang, LanguageMapping langMapping) {
+            switch (this) {
+                case LANGUAGE_ID:
+                    return langMapping.getValueOrDefault(lang.getId(), name, lang.getId());
+                case LANGUAGE:
+                    return langMapping.getValueOrDefault(lang.getId(), name,
+                        langMapping.getValueOrDefault(lang.getId(), LANGUAGE_NAME_2, lang.getName()));
+                case LOCALE:
+                    return langMapping.getValueOrDefault(lang.getId(), name, lang.getLocale());
+                case LOCALE_WITH_UNDERSCORE:
+                    return langMapping.getValueOrDefault(lang.getId(), name, lang.getLocale().replace("-", "_"));
+                case TWO_LETTERS_CODE:
+                    return langMapping.getValueOrDefault(lang.getId(), name, lang.getTwoLettersCode());
+                case THREE_LETTERS_CODE:
+                    return langMapping.getValueOrDefault(lang.getId(), name, lang.getThreeLettersCode());
+                case ANDROID_CODE:
+                    return langMapping.getValueOrDefault(lang.getId(), name, lang.getAndroidCode());
+                case OSX_LOCALE:
+                    return langMapping.getValueOrDefault(lang.getId(), name, lang.getOsxLocale());
+                case OSX_CODE:
+                    return langMapping.getValueOrDefault(lang.getId(), name, lang.getOsxCode());
+                default:
+                    throw new IllegalArgumentException("Not a language placeholder: " + text);
+            }
+        }
+
+        /**
+         * @return value of the file placeholder
+         */
+        public String value(String sourcePath) {
+            switch (this) {
+                case ORIGINAL_FILE_NAME:
+                    return FilenameUtils.getName(sourcePath);
+                case FILE_NAME:
+                    return FilenameUtils.getBaseName(sourcePath);
+                case FILE_EXTENSION:
+                    return FilenameUtils.getExtension(sourcePath);
+                case ORIGINAL_PATH:
+                    return FilenameUtils.getPathNoEndSeparator(sourcePath);
+                default:
+                    throw new IllegalArgumentException("Not a file placeholder: " + text);
+            }
+        }
+    }
+
+    /** Literal text of every segment, null for placeholders */
+    private final String[] literals;
+    /** Placeholder of every segment, null for literals */
+    private final Placeholder[] placeholders;
+    private final int length;
+
+    private TranslationPatternTemplate(String[] literals, Placeholder[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (int i = 0; i < literals.length; i++) {
+            length += (literals[i] != null) ? literals[i].length() : placeholders[i].text.length();
+        }
+        this.length = length;
+    }
+
+    public static TranslationPatternTemplate parse(@NonNull String pattern) {
+        Builder builder = new Builder();
+        int literalStart = 0;
+        int i = pattern.indexOf('%');
+        while (i != -1) {
+            int end = pattern.indexOf('%', i + 1);
+            if (end == -1) {
+                break;
+            }
+            Placeholder placeholder = Placeholder.find(pattern, i + 1, end);
+            if (placeholder != null) {
+                builder.literal(pattern.substring(literalStart, i));
+                builder.placeholder(placeholder);
+                literalStart = end + 1;
+                i = pattern.indexOf('%', literalStart);
+            } else {
+                i = end;
+            }
+        }
+        builder.literal(pattern.substring(literalStart));
+        return builder.build();
+    }
+
+    /**
+     * @param sourcePath path of the source file
+     * @return template with file placeholders replaced by values for the source file
+     */
+    public TranslationPatternTemplate withFile(@NonNull String sourcePath) {
+        Builder builder = new Builder();
+        for (int i = 0; i < literals.length; i++) {
+            if (literals[i] != null) {
+                builder.literal(literals[i]);
+            } else if (placeholders[i].fileDependent) {
+                builder.literal(placeholders[i].value(sourcePath));
+            } else {
+                builder.placeholder(placeholders[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return pattern with language placeholders replaced, file placeholders are kept
+     */
+    public String render(@NonNull Language lang, LanguageMapping langMapping) {
+        StringBuilder sb = new StringBuilder(length + 16);
+        for (int i = 0; i < literals.length; i++) {
+            if (literals[i] != null) {
+                sb.append(literals[i]);
+            } else if (placeholders[i].fileDependent) {
+                sb.append(placeholders[i].text);
+            } else {
+                sb.append(placeholders[i].value(lang, langMapping));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param languageIndex index of the language in the table
+     * @return pattern with language placeholders replaced, file placeholders are kept
+     */
+    public String render(@NonNull LanguagePlaceholderTable languages, int languageIndex) {
+        String[] values = languages.values(languageIndex);
+        StringBuilder sb = new StringBuilder(length + 16);
+        for (int i = 0; i < literals.length; i++) {
+            if (literals[i] != null) {
+                sb.append(literals[i]);
+            } else if (placeholders[i].fileDependent) {
+                sb.append(placeholders[i].text);
+            } else {
+                sb.append(values[placeholders[i].ordinal()]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return pattern with file placeholders replaced, language placeholders are kept
+     */
+    public String renderFile(@NonNull String sourcePath) {
+        return this.withFile(sourcePath).toString();
+    }
+
+    /**
+     * @return true if the template has placeholders of the given kind
+     */
+    public boolean hasPlaceholders(boolean fileDependent) {
+        for (Placeholder placeholder : placeholders) {
+            if (placeholder != null && placeholder.fileDependent == fileDependent) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int segmentCount() {
+        return literals.length;
+    }
+
+    /**
+     * @return literal text of the segment, null if the segment is a placeholder
+     */
+    String literal(int segment) {
+        return literals[segment];
+    }
+
+    /**
+     * @return placeholder of the segment, null if the segment is a literal
+     */
+    Placeholder placeholder(int segment) {
+        return placeholders[segment];
+    }
+
+    /**
+     * @return pattern text, with unresolved placeholders in their original form
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < literals.length; i++) {
+            sb.append((literals[i] != null) ? literals[i] : placeholders[i].text);
+        }
+        return sb.toString();
+    }
+
+    private static class Builder {
+
+        private final List<String> literals = new ArrayList<>();
+        private final List<Placeholder> placeholders = new ArrayList<>();
+
+        private void literal(String literal) {
+            if (literal.isEmpty()) {
+                return;
+            }
+            int last = literals.size() - 1;
+            if (last >= 0 && literals.get(last) != null) {
+                literals.set(last, literals.get(last) + literal);
+            } else {
+                literals.add(literal);
+                placeholders.add(null);
+            }
+        }
+
+        private void placeholder(Placeholder placeholder) {
+            literals.add(null);
+            placeholders.add(placeholder);
+        }
+
+        private TranslationPatternTemplate build() {
+            return new TranslationPatternTemplate(
+                literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.crowdin.client;
+
+import com.crowdin.api.model.BranchBuilder;
+import com.crowdin.api.model.FileBuilder;
+import com.crowdin.client.sourcefiles.model.Branch;
+import com.crowdin.client.sourcefiles.model.File;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BranchFilesCacheTest {
+
+    private static final Long PROJECT_ID = 10L;
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        BranchFilesCache cache = new BranchFilesCache(2, Long.MAX_VALUE);
+        Branch first = branch("first", 1L);
+        Branch second = branch("second", 2L);
+        Branch third = branch("third", 3L);
+
+        cache.put(first, tree(first));
+        cache.put(second, tree(second));
+        cache.get(first);
+        cache.put(third, tree(third));
+
+        assertTrue(cache.contains(first));
+        assertFalse(cache.contains(second));
+        assertTrue(cache.contains(third));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testKeepsPinnedBranch() {
+        BranchFilesCache cache = new BranchFilesCache(1, Long.MAX_VALUE);
+        Branch first = branch("first", 1L);
+        Branch second = branch("second", 2L);
+        Branch third = branch("third", 3L);
+
+        cache.pin("first");
+        cache.put(first, tree(first));
+        cache.put(second, tree(second));
+        cache.put(third, tree(third));
+
+        assertTrue(cache.contains(first));
+        assertFalse(cache.contains(second));
+        assertTrue(cache.contains(third));
+    }
+
+    @Test
+    public void testEvictsByEstimatedBytes() {
+        BranchFilesCache cache = new BranchFilesCache(16, 1);
+        Branch first = branch("first", 1L);
+        Branch second = branch("second", 2L);
+
+        cache.put(first, tree(first));
+        long firstBytes = cache.getEstimatedBytes();
+        cache.put(second, tree(second));
+
+        assertTrue(firstBytes > 0);
+        assertFalse(cache.contains(first));
+        assertTrue(cache.contains(second));
+        assertEquals(firstBytes, cache.getEstimatedBytes());
+    }
+
+    @Test
+    public void testEstimatesGrownTrees() {
+        Branch first = branch("first", 1L);
+        Branch second = branch("second", 2L);
+        CrowdinFileTree grown = CrowdinFileTree.empty(first.getId(), first.getName());
+        BranchFilesCache cache = new BranchFilesCache(16, CrowdinFileTree.empty(null, null).estimateBytes() * 2 + 1);
+
+        cache.put(first, grown);
+        long emptyBytes = cache.getEstimatedBytes();
+        for (long id = 1; id <= 100; id++) {
+            grown.addFile(FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("strings" + id + ".xml", "xml", id, null, first.getId()).build());
+        }
+
+        assertTrue(cache.getEstimatedBytes() > emptyBytes);
+        assertEquals(grown.estimateBytes(), cache.getEstimatedBytes());
+        cache.put(second, CrowdinFileTree.empty(second.getId(), second.getName()));
+        assertFalse(cache.contains(first));
+        assertTrue(cache.contains(second));
+    }
+
+    @Test
+    public void testClearResetsCounters() {
+        BranchFilesCache cache = new BranchFilesCache(1, Long.MAX_VALUE);
+        Branch first = branch("first", 1L);
+        Branch second = branch("second", 2L);
+
+        cache.put(first, tree(first));
+        cache.put(second, tree(second));
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getEstimatedBytes());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    private static Branch branch(String name, Long id) {
+        return BranchBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers(name, id).build();
+    }
+
+    private static CrowdinFileTree tree(Branch branch) {
+        File file = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("strings.xml", "xml", branch.getId() * 100, null, branch.getId()).build();
+        return CrowdinFileTree.build(branch.getId(), branch.getName(), Collections.singletonList(file), new HashMap<>());
+    }
+}
@@ -0,0 +1,197 @@
+package com.crowdin.client;
+
+import com.crowdin.api.model.DirectoryBuilder;
+import com.crowdin.api.model.FileBuilder;
+import com.crowdin.client.sourcefiles.model.Directory;
+import com.crowdin.client.sourcefiles.model.File;
+import com.crowdin.client.sourcefiles.model.FileInfo;
+import com.crowdin.client.sourcefiles.model.PropertyFileExportOptions;
+import com.crowdin.util.CrowdinFileUtil;
+import com.crowdin.util.CrowdinPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CrowdinFileTreeTest {
+
+    private static final Long PROJECT_ID = 10L;
+    private static final Long BRANCH_ID = 301L;
+    private static final String sep = java.io.File.separator;
+
+    private final Directory dirApp = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("app", 201L, null, BRANCH_ID).build();
+    private final Directory dirValues = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("values", 202L, 201L, BRANCH_ID).build();
+    private final File fileStrings = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("strings.xml", "xml", 101L, 202L, BRANCH_ID).build();
+    private final File fileRootStrings = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("strings.xml", "xml", 102L, null, BRANCH_ID).build();
+
+    @Test
+    public void testLookupByPath() {
+        CrowdinFileTree tree = this.buildTree();
+
+        assertEquals(Long.valueOf(101L), tree.asFileMap().get(sep + "app" + sep + "values" + sep + "strings.xml").getId());
+        assertEquals(Long.valueOf(101L), tree.asFileMap().get("/app/values/strings.xml").getId());
+        assertEquals(Long.valueOf(102L), tree.asFileMap().get(sep + "strings.xml").getId());
+        assertEquals(Long.valueOf(202L), tree.asFileMap().get(sep + "app" + sep + "values" + sep + "strings.xml").getDirectoryId());
+        assertEquals("/master/app/values/strings.xml", tree.asFileMap().get(sep + "app" + sep + "values" + sep + "strings.xml").getPath());
+        assertNull(tree.asFileMap().get(sep + "app" + sep + "strings.xml"));
+        assertNull(tree.asFileMap().get(sep + "app" + sep + "values"));
+        assertEquals(Long.valueOf(202L), tree.asDirectoryMap().get(sep + "app" + sep + "values").getId());
+        assertFalse(tree.asDirectoryMap().containsKey(sep + "strings.xml"));
+    }
+
+    @Test
+    public void testLookupByCrowdinPath() {
+        CrowdinFileTree tree = this.buildTree();
+
+        assertEquals(Long.valueOf(101L), tree.getFile(CrowdinPath.of("app", "values", "strings.xml")).getId());
+        assertEquals(Long.valueOf(102L), tree.getFile(CrowdinPath.of("strings.xml")).getId());
+        assertEquals(Long.valueOf(101L), tree.asFileMap().get(CrowdinPath.of("/app/values/strings.xml")).getId());
+        assertNull(tree.getFile(CrowdinPath.of("app", "values")));
+        assertNull(tree.getFile(CrowdinPath.ROOT));
+        assertEquals(Long.valueOf(202L), tree.getDirectory(CrowdinPath.of("app/values")).getId());
+        assertNull(tree.getDirectory(CrowdinPath.of("strings.xml")));
+    }
+
+    @Test
+    public void testSameKeysAsPathMaps() {
+        CrowdinFileTree tree = this.buildTree();
+        List<File> files = Arrays.asList(fileStrings, fileRootStrings);
+
+        Map<String, Long> expectedFiles = CrowdinFileUtil.buildFilePaths(files, this.dirs()).entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getId()));
+        Map<String, Long> resultFiles = tree.asFileMap().entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getId()));
+        assertEquals(expectedFiles, resultFiles);
+        assertEquals(CrowdinFileUtil.buildDirPaths(this.dirs()).keySet(), tree.asDirectoryMap().keySet());
+    }
+
+    @Test
+    public void testAddDirectory() {
+        CrowdinFileTree tree = this.buildTree();
+        Directory dirRes = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("res", 203L, 201L, BRANCH_ID).build();
+
+        tree.asDirectoryMap().put(sep + "app" + sep + "res", dirRes);
+
+        assertTrue(tree.asDirectoryMap().containsKey(sep + "app" + sep + "res"));
+        assertEquals(3, tree.directoryCount());
+    }
+
+    @Test
+    public void testInternsExportOptions() {
+        CrowdinFileTree tree = this.buildTree();
+
+        FileInfo file = tree.asFileMap().get(sep + "strings.xml");
+
+        assertTrue(file instanceof File);
+        assertEquals(fileRootStrings.getExcludedTargetLanguages(), ((File) file).getExcludedTargetLanguages());
+    }
+
+    @Test
+    public void testKeepsExportOptionsWithSamePattern() {
+        File first = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("first.properties", "properties", 103L, null, BRANCH_ID).build();
+        first.setExportOptions(propertyOptions("/%locale%/%original_file_name%", 0));
+        File second = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("second.properties", "properties", 104L, null, BRANCH_ID).build();
+        second.setExportOptions(propertyOptions("/%locale%/%original_file_name%", 3));
+        File third = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("third.properties", "properties", 105L, null, BRANCH_ID).build();
+        third.setExportOptions(propertyOptions("/%locale%/%original_file_name%", 0));
+        CrowdinFileTree tree = CrowdinFileTree.build(BRANCH_ID, "master", Arrays.asList(first, second, third), new HashMap<>());
+
+        PropertyFileExportOptions firstOptions = (PropertyFileExportOptions) ((File) tree.asFileMap().get(sep + "first.properties")).getExportOptions();
+        PropertyFileExportOptions secondOptions = (PropertyFileExportOptions) ((File) tree.asFileMap().get(sep + "second.properties")).getExportOptions();
+        PropertyFileExportOptions thirdOptions = (PropertyFileExportOptions) ((File) tree.asFileMap().get(sep + "third.properties")).getExportOptions();
+
+        assertEquals(Integer.valueOf(0), firstOptions.getEscapeQuotes());
+        assertEquals(Integer.valueOf(3), secondOptions.getEscapeQuotes());
+        assertEquals(Integer.valueOf(0), thirdOptions.getEscapeQuotes());
+        assertEquals("/%locale%/%original_file_name%", secondOptions.getExportPattern());
+        assertNotSame(firstOptions, thirdOptions);
+    }
+
+    @Test
+    public void testHasFullFiles() {
+        FileInfo plainFile = new FileInfo();
+        plainFile.setId(106L);
+        plainFile.setName("plain.xml");
+
+        assertTrue(this.buildTree().hasFullFiles());
+        assertFalse(CrowdinFileTree.build(BRANCH_ID, "master", Arrays.asList(fileRootStrings, plainFile), new HashMap<>()).hasFullFiles());
+    }
+
+    @Test
+    public void testFindSuffixesOf() {
+        CrowdinFileTree tree = this.buildTree();
+        String localValues = sep + "home" + sep + "project" + sep + "app" + sep + "values" + sep;
+        File filePlurals = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("plurals.xml", "xml", 103L, 202L, BRANCH_ID).build();
+
+        assertEquals(Arrays.asList(101L, 102L), tree.findSuffixesOf(localValues + "strings.xml").stream().sorted().collect(Collectors.toList()));
+        assertTrue(tree.findSuffixesOf(localValues + "plurals.xml").isEmpty());
+
+        tree.addFile(filePlurals);
+
+        assertEquals(Arrays.asList(103L), tree.findSuffixesOf(localValues + "plurals.xml"));
+        assertTrue(tree.findSuffixesOf(sep + "home" + sep + "project" + sep + "plurals.xml").isEmpty());
+    }
+
+    @Test
+    public void testRejectsUnknownDirectory() {
+        CrowdinFileTree tree = this.buildTree();
+        File orphanFile = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("plurals.xml", "xml", 103L, 299L, BRANCH_ID).build();
+        Directory orphanDir = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("res", 203L, 299L, BRANCH_ID).build();
+
+        try {
+            tree.addFile(orphanFile);
+            fail("The failure to add a file to an unknown directory is expected");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("plurals.xml"));
+        }
+        try {
+            tree.addDirectory(orphanDir);
+            fail("The failure to add a directory to an unknown directory is expected");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("res"));
+        }
+        assertEquals(2, tree.fileCount());
+        assertEquals(2, tree.directoryCount());
+        assertNull(tree.asFileMap().get(sep + "plurals.xml"));
+    }
+
+    @Test
+    public void testMaterializesReadFields() {
+        FileInfo file = this.buildTree().getFile(CrowdinPath.of("app", "values", "strings.xml"));
+
+        assertEquals(Long.valueOf(101L), file.getId());
+        assertEquals("strings.xml", file.getName());
+        assertEquals(BRANCH_ID, file.getBranchId());
+        assertEquals(Long.valueOf(202L), file.getDirectoryId());
+        assertEquals(fileStrings.getRevisionId(), ((File) file).getRevisionId());
+        assertEquals(fileStrings.getExcludedTargetLanguages(), ((File) file).getExcludedTargetLanguages());
+    }
+
+    private static PropertyFileExportOptions propertyOptions(String exportPattern, Integer escapeQuotes) {
+        PropertyFileExportOptions options = new PropertyFileExportOptions();
+        options.setExportPattern(exportPattern);
+        options.setEscapeQuotes(escapeQuotes);
+        return options;
+    }
+
+    private CrowdinFileTree buildTree() {
+        return CrowdinFileTree.build(BRANCH_ID, "master", Arrays.asList(fileStrings, fileRootStrings), this.dirs());
+    }
+
+    private Map<Long, Directory> dirs() {
+        Map<Long, Directory> dirs = new HashMap<>();
+        dirs.put(dirValues.getId(), dirValues);
+        dirs.put(dirApp.getId(), dirApp);
+        return dirs;
+    }
+}
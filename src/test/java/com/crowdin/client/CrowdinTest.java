@@ -0,0 +1,100 @@
+package com.crowdin.client;
+
+import com.crowdin.api.model.DirectoryBuilder;
+import com.crowdin.client.core.http.exceptions.HttpException;
+import com.crowdin.client.core.model.ResponseList;
+import com.crowdin.client.core.model.ResponseObject;
+import com.crowdin.client.sourcefiles.SourceFilesApi;
+import com.crowdin.client.sourcefiles.model.AddDirectoryRequest;
+import com.crowdin.client.sourcefiles.model.Directory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.crowdin.Constants.MESSAGES_BUNDLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CrowdinTest {
+
+    private static final Long PROJECT_ID = 10L;
+    private static final Long BRANCH_ID = 301L;
+
+    @Test
+    public void testAddDirectoryFindsConcurrentlyCreated() {
+        Directory created = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("app", 201L, null, BRANCH_ID).build();
+        ResponseList<Directory> notYetListed = directories();
+        ResponseList<Directory> listed = directories(created);
+        SourceFilesApi sourceFilesApi = this.concurrentlyCreated();
+        when(sourceFilesApi.listDirectories(eq(PROJECT_ID), eq(BRANCH_ID), isNull(), isNull(), any(), any()))
+            .thenReturn(notYetListed)
+            .thenReturn(listed);
+
+        Directory result = new Crowdin(null, PROJECT_ID, client(sourceFilesApi)).addDirectory(request("app"));
+
+        assertSame(created, result);
+        verify(sourceFilesApi, times(2)).listDirectories(eq(PROJECT_ID), eq(BRANCH_ID), isNull(), isNull(), any(), any());
+    }
+
+    @Test
+    public void testAddDirectoryFailsIfNotFound() {
+        Directory other = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("res", 202L, null, BRANCH_ID).build();
+        ResponseList<Directory> listed = directories(other);
+        SourceFilesApi sourceFilesApi = this.concurrentlyCreated();
+        when(sourceFilesApi.listDirectories(eq(PROJECT_ID), eq(BRANCH_ID), isNull(), isNull(), any(), any()))
+            .thenReturn(listed);
+
+        try {
+            new Crowdin(null, PROJECT_ID, client(sourceFilesApi)).addDirectory(request("app"));
+            fail("The failure to find the directory is expected");
+        } catch (RuntimeException e) {
+            assertEquals(String.format(MESSAGES_BUNDLE.getString("errors.find_directory"), "app"), e.getMessage());
+        }
+        verify(sourceFilesApi, times(3)).listDirectories(eq(PROJECT_ID), eq(BRANCH_ID), isNull(), isNull(), any(), any());
+    }
+
+    private SourceFilesApi concurrentlyCreated() {
+        HttpException.Error error = new HttpException.Error();
+        error.setCode("parallelCreation");
+        HttpException exception = new HttpException();
+        exception.setError(error);
+        SourceFilesApi sourceFilesApi = mock(SourceFilesApi.class);
+        when(sourceFilesApi.addDirectory(eq(PROJECT_ID), any(AddDirectoryRequest.class))).thenThrow(exception);
+        return sourceFilesApi;
+    }
+
+    private static AddDirectoryRequest request(String name) {
+        AddDirectoryRequest request = new AddDirectoryRequest();
+        request.setName(name);
+        request.setBranchId(BRANCH_ID);
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ResponseList<Directory> directories(Directory... dirs) {
+        List<ResponseObject<Directory>> data = new ArrayList<>();
+        for (Directory dir : dirs) {
+            ResponseObject<Directory> responseObject = mock(ResponseObject.class);
+            when(responseObject.getData()).thenReturn(dir);
+            data.add(responseObject);
+        }
+        ResponseList<Directory> responseList = mock(ResponseList.class);
+        when(responseList.getData()).thenReturn(data);
+        return responseList;
+    }
+
+    private static Client client(SourceFilesApi sourceFilesApi) {
+        Client client = mock(Client.class);
+        when(client.getSourceFilesApi()).thenReturn(sourceFilesApi);
+        return client;
+    }
+}
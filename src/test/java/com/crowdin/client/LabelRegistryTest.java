@@ -0,0 +1,94 @@
+package com.crowdin.client;
+
+import com.crowdin.client.labels.model.Label;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class LabelRegistryTest {
+
+    private final List<Label> serverLabels = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicInteger creations = new AtomicInteger();
+
+    @Test
+    public void testLabelsLoadedOncePerTtl() {
+        serverLabels.add(label(1L, "android"));
+        LabelRegistry registry = new LabelRegistry(TimeUnit.MINUTES.toNanos(5));
+
+        assertEquals(Long.valueOf(1L), this.resolve(registry, "android").get("android"));
+        assertEquals(Long.valueOf(1L), this.resolve(registry, "android").get("android"));
+        assertEquals(1, loads.get());
+        assertEquals(0, creations.get());
+    }
+
+    @Test
+    public void testLabelsReloadedAfterTtl() {
+        serverLabels.add(label(1L, "android"));
+        LabelRegistry registry = new LabelRegistry(0);
+
+        this.resolve(registry, "android");
+        this.resolve(registry, "android");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testMissingLabelsCreated() {
+        serverLabels.add(label(1L, "android"));
+        LabelRegistry registry = new LabelRegistry(TimeUnit.MINUTES.toNanos(5));
+
+        Map<String, Long> labels = this.resolve(registry, "android", "ios", "web");
+        assertEquals(3, labels.size());
+        assertEquals(Long.valueOf(1L), labels.get("android"));
+        assertEquals(2, creations.get());
+
+        this.resolve(registry, "ios", "web");
+        assertEquals(2, creations.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testLabelCreatedConcurrentlyIsReloaded() {
+        LabelRegistry registry = new LabelRegistry(TimeUnit.MINUTES.toNanos(5));
+        this.resolve(registry);
+        serverLabels.add(label(7L, "android"));
+
+        Map<String, Long> labels = registry.resolve(Collections.singletonList("android"), this::listLabels, title -> {
+            throw new RuntimeException("notUnique");
+        }, Runnable::run);
+        assertEquals(Long.valueOf(7L), labels.get("android"));
+        assertEquals(2, loads.get());
+    }
+
+    private Map<String, Long> resolve(LabelRegistry registry, String... titles) {
+        return registry.resolve(Arrays.asList(titles), this::listLabels, this::addLabel, Runnable::run);
+    }
+
+    private List<Label> listLabels() {
+        loads.incrementAndGet();
+        synchronized (serverLabels) {
+            return new ArrayList<>(serverLabels);
+        }
+    }
+
+    private Label addLabel(String title) {
+        Label label = label(100L + creations.incrementAndGet(), title);
+        serverLabels.add(label);
+        return label;
+    }
+
+    private static Label label(Long id, String title) {
+        Label label = new Label();
+        label.setId(id);
+        label.setTitle(title);
+        return label;
+    }
+}
@@ -0,0 +1,54 @@
+package com.crowdin.logic;
+
+import com.crowdin.api.model.DirectoryBuilder;
+import com.crowdin.client.CrowdinFileTree;
+import com.crowdin.client.sourcefiles.model.Directory;
+import com.crowdin.util.CrowdinPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DirectoryPlannerTest {
+
+    private static final Long PROJECT_ID = 10L;
+    private static final Long BRANCH_ID = 301L;
+
+    @Test
+    public void testPlanByLevels() {
+        List<List<CrowdinPath>> plan = DirectoryPlanner.plan(this.buildTree(), Arrays.asList(
+            CrowdinPath.of("app/values-uk/nested"),
+            CrowdinPath.of("lib/res/values"),
+            CrowdinPath.of("app/values"),
+            CrowdinPath.of("lib/res"),
+            CrowdinPath.of("app/values-uk"),
+            CrowdinPath.ROOT
+        ));
+
+        assertEquals(Arrays.asList(
+            Collections.singletonList(CrowdinPath.of("lib")),
+            Arrays.asList(CrowdinPath.of("app/values-uk"), CrowdinPath.of("lib/res")),
+            Arrays.asList(CrowdinPath.of("app/values-uk/nested"), CrowdinPath.of("lib/res/values"))
+        ), plan);
+    }
+
+    @Test
+    public void testPlanNothingMissing() {
+        assertTrue(DirectoryPlanner.plan(this.buildTree(), Arrays.asList(CrowdinPath.of("app/values"), CrowdinPath.ROOT)).isEmpty());
+    }
+
+    private CrowdinFileTree buildTree() {
+        Directory dirApp = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("app", 201L, null, BRANCH_ID).build();
+        Directory dirValues = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("values", 202L, 201L, BRANCH_ID).build();
+        Map<Long, Directory> dirs = new HashMap<>();
+        dirs.put(dirApp.getId(), dirApp);
+        dirs.put(dirValues.getId(), dirValues);
+        return CrowdinFileTree.build(BRANCH_ID, "master", Collections.emptyList(), dirs);
+    }
+}
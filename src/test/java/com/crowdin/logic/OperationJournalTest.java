@@ -0,0 +1,83 @@
+package com.crowdin.logic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OperationJournalTest {
+
+    @Test
+    public void testResumeFinishedSteps(@TempDir Path dir) {
+        Path file = dir.resolve("journals").resolve("upload-sources-10-301.journal");
+        OperationJournal journal = new OperationJournal(file);
+        journal.record(OperationJournal.Step.STORAGE, "/app/strings.xml", "abc", "42");
+        journal.record(OperationJournal.Step.SOURCE, "/app/strings.xml", "abc", "101");
+        journal.close(false);
+
+        OperationJournal resumed = new OperationJournal(file);
+        assertEquals(2, resumed.size());
+        assertTrue(resumed.isDone(OperationJournal.Step.SOURCE, "/app/strings.xml", "abc"));
+        assertFalse(resumed.isDone(OperationJournal.Step.SOURCE, "/app/strings.xml", "abd"));
+        assertFalse(resumed.isDone(OperationJournal.Step.TRANSLATION, "/app/strings.xml", "abc"));
+        assertEquals(Long.valueOf(42L), resumed.getStorageId("/app/strings.xml", "abc"));
+        assertNull(resumed.getStorageId("/app/strings.xml", "abd"));
+    }
+
+    @Test
+    public void testPartialLineIgnored(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("upload-translations-10-.journal");
+        OperationJournal journal = new OperationJournal(file);
+        journal.record(OperationJournal.Step.TRANSLATION, "uk:/values-uk/strings.xml", "abc", null);
+        journal.close(false);
+        Files.write(file, "1a2b3c\t1600000000000\tTRANSLATION\tde:/values-de/str".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        OperationJournal resumed = new OperationJournal(file);
+        assertEquals(1, resumed.size());
+        resumed.record(OperationJournal.Step.TRANSLATION, "de:/values-de/strings.xml", "def", null);
+        resumed.close(false);
+
+        OperationJournal reloaded = new OperationJournal(file);
+        assertTrue(reloaded.isDone(OperationJournal.Step.TRANSLATION, "uk:/values-uk/strings.xml", "abc"));
+        assertTrue(reloaded.isDone(OperationJournal.Step.TRANSLATION, "de:/values-de/strings.xml", "def"));
+    }
+
+    @Test
+    public void testFinishedOperationDeletesJournal(@TempDir Path dir) {
+        Path file = dir.resolve("upload-sources-10-.journal");
+        OperationJournal journal = new OperationJournal(file);
+        journal.record(OperationJournal.Step.SOURCE, "/strings.xml", "abc", "101");
+        journal.close(true);
+
+        assertFalse(Files.exists(file));
+        assertEquals(0, new OperationJournal(file).size());
+    }
+
+    @Test
+    public void testConcurrentRunDoesNotShareJournal(@TempDir Path dir) {
+        Path file = dir.resolve("upload-sources-10-.journal");
+        OperationJournal journal = OperationJournal.open(file);
+        journal.record(OperationJournal.Step.SOURCE, "/strings.xml", "abc", "101");
+
+        OperationJournal concurrent = OperationJournal.open(file);
+        assertEquals(0, concurrent.size());
+        concurrent.record(OperationJournal.Step.SOURCE, "/plurals.xml", "def", "102");
+        concurrent.close(true);
+        assertTrue(Files.exists(file));
+
+        journal.close(false);
+        OperationJournal resumed = OperationJournal.open(file);
+        assertTrue(resumed.isDone(OperationJournal.Step.SOURCE, "/strings.xml", "abc"));
+        assertFalse(resumed.isDone(OperationJournal.Step.SOURCE, "/plurals.xml", "def"));
+        resumed.close(true);
+        assertFalse(Files.exists(file));
+    }
+}
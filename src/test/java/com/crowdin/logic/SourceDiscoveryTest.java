@@ -0,0 +1,100 @@
+package com.crowdin.logic;
+
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class SourceDiscoveryTest extends BasePlatformTestCase {
+
+    private static final Predicate<VirtualFile> EXCLUDED = dir -> "build".equals(dir.getName()) || "values-uk".equals(dir.getName());
+
+    @Override
+    protected String getTestDataPath() {
+        return "src/test/testData";
+    }
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setUp();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        super.tearDown();
+    }
+
+    @Test
+    public void testDiscover() {
+        List<VirtualFile> files = this.copyFiles();
+        VirtualFile root = this.root(files);
+        List<String> patterns = Arrays.asList("values/*.xml", "**/values/strings.xml", "build/values/strings.xml");
+
+        SourceDiscovery.Result result = SourceDiscovery.discover(root, patterns, EXCLUDED);
+
+        assertEquals(Arrays.asList("values/strings.xml", "values/strings2.xml"), this.relativePaths(root, result.getFiles().get(0)));
+        assertEquals(Arrays.asList("values/second/values/strings.xml", "values/strings.xml"), this.relativePaths(root, result.getFiles().get(1)));
+        assertEquals(Collections.singletonList("build/values/strings.xml"), this.relativePaths(root, result.getFiles().get(2)));
+        assertEquals(2, result.getSkippedDirectories());
+    }
+
+    @Test
+    public void testDiscoverSkipsExcludedThroughQuestionMarks() {
+        List<VirtualFile> files = this.copyFiles();
+        VirtualFile root = this.root(files);
+        List<String> patterns = Arrays.asList("values-??/strings.xml", "values-uk/strings.xml");
+
+        SourceDiscovery.Result result = SourceDiscovery.discover(root, patterns, EXCLUDED);
+
+        assertEquals(Collections.singletonList("values-de/strings.xml"), this.relativePaths(root, result.getFiles().get(0)));
+        assertEquals(Collections.singletonList("values-uk/strings.xml"), this.relativePaths(root, result.getFiles().get(1)));
+    }
+
+    @Test
+    public void testMatchesAgreesWithDiscover() {
+        List<VirtualFile> files = this.copyFiles();
+        VirtualFile root = this.root(files);
+        List<String> patterns = Arrays.asList(
+            "values/*.xml", "**/values/strings.xml", "build/values/strings.xml", "values-??/strings.xml", "values-uk/strings.xml", "**/*.xml");
+
+        SourceDiscovery.Result result = SourceDiscovery.discover(root, patterns, EXCLUDED);
+
+        for (int i = 0; i < patterns.size(); i++) {
+            for (VirtualFile file : files) {
+                assertEquals("Pattern: " + patterns.get(i) + ", file: " + file.getPath(),
+                    result.getFiles().get(i).contains(file), SourceDiscovery.matches(root, patterns.get(i), file, EXCLUDED));
+            }
+        }
+    }
+
+    private List<VirtualFile> copyFiles() {
+        List<VirtualFile> files = new ArrayList<>();
+        files.add(myFixture.copyFileToProject("values/strings.xml"));
+        files.add(myFixture.copyFileToProject("values/strings2.xml"));
+        files.add(myFixture.copyFileToProject("values/second/values/strings.xml"));
+        files.add(myFixture.copyFileToProject("values/strings.xml", "build/values/strings.xml"));
+        files.add(myFixture.copyFileToProject("values/strings.xml", "values-uk/strings.xml"));
+        files.add(myFixture.copyFileToProject("values/strings.xml", "values-de/strings.xml"));
+        return files;
+    }
+
+    private VirtualFile root(List<VirtualFile> files) {
+        return files.get(0).getParent().getParent();
+    }
+
+    private List<String> relativePaths(VirtualFile root, List<VirtualFile> files) {
+        return files.stream()
+            .map(file -> VfsUtilCore.getRelativePath(file, root, '/'))
+            .sorted()
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,111 @@
+package com.crowdin.logic;
+
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+public class SourceFilesIndexTest extends BasePlatformTestCase {
+
+    @Override
+    protected String getTestDataPath() {
+        return "src/test/testData";
+    }
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setUp();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        super.tearDown();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testAffects(String pattern, String path, boolean expected) {
+        assertEquals("Pattern: " + pattern + ", path: " + path, expected, SourceFilesIndex.affects("/project", pattern, path));
+    }
+
+    public static Stream<Arguments> testAffects() {
+        return Stream.of(
+            arguments("values/*.xml", "/project", true),
+            arguments("values/*.xml", "/", true),
+            arguments("values/*.xml", "/project/values", true),
+            arguments("values/*.xml", "/project/values/strings.xml", true),
+            arguments("values/*.xml", "/project/values/nested", false),
+            arguments("values/*.xml", "/project/build", false),
+            arguments("values/*.xml", "/project2/values", false),
+            arguments("values/*.xml", "/other/values/strings.xml", false),
+            arguments("app/values-??/strings.xml", "/project/app/values-uk", true),
+            arguments("app/values-??/strings.xml", "/project/app/values-night", false),
+            arguments("app/values-??/strings.xml", "/project/.gradle/values-uk", false),
+            arguments("**/values/strings.xml", "/project/build/values", true),
+            arguments("**/values/strings.xml", "/project/build/values/strings.xml", true),
+            arguments("app/values-??/strings.xml", "/project/app/values-uk/plurals.xml", false)
+        );
+    }
+
+    @Test
+    public void testUnrelatedDirectoryKeepsIndex() {
+        VirtualFile file = myFixture.copyFileToProject("values/strings.xml");
+        VirtualFile root = file.getParent().getParent();
+        SourceFilesIndex index = this.createIndex();
+        assertEquals(Collections.singletonList(file), index.getSourceFiles(root, "values/*.xml"));
+        long modificationCount = index.getModificationCount();
+
+        myFixture.getTempDirFixture().findOrCreateDir("build/classes");
+        myFixture.getTempDirFixture().findOrCreateDir("values/nested");
+
+        assertEquals(modificationCount, index.getModificationCount());
+        assertEquals(Collections.singletonList(file), index.getSourceFiles(root, "values/*.xml"));
+    }
+
+    @Test
+    public void testRelevantDirectoryDropsPattern() {
+        VirtualFile file = myFixture.copyFileToProject("values/strings.xml");
+        VirtualFile root = file.getParent().getParent();
+        SourceFilesIndex index = this.createIndex();
+        assertEquals(Collections.singletonList(file), index.getSourceFiles(root, "values*/strings.xml"));
+        long modificationCount = index.getModificationCount();
+
+        VirtualFile created = myFixture.copyFileToProject("values/strings.xml", "values-uk/strings.xml");
+
+        assertTrue(index.getModificationCount() > modificationCount);
+        assertEquals(2, index.getSourceFiles(root, "values*/strings.xml").size());
+        assertTrue(index.isSourceFile(root, "values*/strings.xml", created));
+    }
+
+    @Test
+    public void testFileNameIndexAgreesWithWalk() {
+        myFixture.copyFileToProject("values/strings.xml", "values-uk/strings.xml");
+        myFixture.copyFileToProject("values/second/values/strings.xml");
+        myFixture.copyFileToProject("values/strings.xml", "app/values/strings.xml");
+        VirtualFile file = myFixture.copyFileToProject("values/strings.xml");
+        VirtualFile root = file.getParent().getParent();
+        SourceFilesIndex index = this.createIndex();
+
+        for (String pattern : Arrays.asList("**/values/strings.xml", "values*/strings.xml", "*/values/strings.xml")) {
+            SourceDiscovery.Result walked = SourceDiscovery.discover(root, Collections.singletonList(pattern), index::isExcluded);
+            assertEquals("Pattern: " + pattern, walked.getFiles().get(0), index.getSourceFiles(root, pattern));
+        }
+    }
+
+    private SourceFilesIndex createIndex() {
+        SourceFilesIndex index = new SourceFilesIndex(this.getProject());
+        Disposer.register(this.getTestRootDisposable(), index);
+        return index;
+    }
+}
@@ -0,0 +1,134 @@
+package com.crowdin.logic;
+
+import com.crowdin.api.model.DirectoryBuilder;
+import com.crowdin.api.model.FileBuilder;
+import com.crowdin.client.Crowdin;
+import com.crowdin.client.CrowdinFileTree;
+import com.crowdin.client.CrowdinProjectCacheProvider;
+import com.crowdin.client.FileBean;
+import com.crowdin.client.FileBeanBuilder;
+import com.crowdin.client.LabelRegistry;
+import com.crowdin.client.labels.model.AddLabelRequest;
+import com.crowdin.client.labels.model.Label;
+import com.crowdin.client.sourcefiles.model.AddDirectoryRequest;
+import com.crowdin.client.sourcefiles.model.AddFileRequest;
+import com.crowdin.client.sourcefiles.model.Branch;
+import com.crowdin.util.CrowdinPath;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SourceLogicTest extends BasePlatformTestCase {
+
+    private static final Long PROJECT_ID = 10L;
+    private static final Long LABEL_ID = 7L;
+
+    @Override
+    protected String getTestDataPath() {
+        return "src/test/testData";
+    }
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setUp();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        super.tearDown();
+    }
+
+    @Test
+    public void testCreatesLabelsAndDirectoriesBeforeUploads() {
+        VirtualFile strings = myFixture.copyFileToProject("values/strings.xml");
+        VirtualFile strings2 = myFixture.copyFileToProject("values/strings2.xml");
+        VirtualFile root = strings.getParent().getParent();
+        FileBean fileBean = FileBeanBuilder.fileBean("/values/*.xml", "/values-%two_letters_code%/%original_file_name%").build();
+        fileBean.setLabels(Collections.singletonList("android"));
+        Crowdin crowdin = this.crowdin();
+        CrowdinFileTree fileTree = CrowdinFileTree.empty(null, null);
+
+        SourceLogic.processSources(this.getProject(), root, crowdin, this.projectCache(),
+            Collections.<Branch, CrowdinFileTree>singletonMap(null, fileTree), true,
+            Collections.singletonMap(fileBean, Arrays.asList(strings, strings2)), false, false);
+
+        InOrder inOrder = inOrder(crowdin);
+        inOrder.verify(crowdin).addLabel(any(AddLabelRequest.class));
+        inOrder.verify(crowdin).addDirectory(any(AddDirectoryRequest.class));
+        inOrder.verify(crowdin, times(2)).addSource(any(AddFileRequest.class));
+        ArgumentCaptor<AddFileRequest> requests = ArgumentCaptor.forClass(AddFileRequest.class);
+        verify(crowdin, times(2)).addSource(requests.capture());
+        for (AddFileRequest request : requests.getAllValues()) {
+            assertEquals(Collections.singletonList(LABEL_ID), request.getAttachLabelIds());
+            assertEquals(fileTree.getDirectory(CrowdinPath.of("values")).getId(), request.getDirectoryId());
+        }
+    }
+
+    @Test
+    public void testSkipsUnchangedSources() {
+        VirtualFile strings = myFixture.copyFileToProject("values/strings.xml");
+        VirtualFile root = strings.getParent().getParent();
+        FileBean fileBean = FileBeanBuilder.fileBean("/values/*.xml", "/values-%two_letters_code%/%original_file_name%").build();
+        Crowdin crowdin = this.crowdin();
+        CrowdinFileTree fileTree = CrowdinFileTree.empty(null, null);
+
+        SourceLogic.processSources(this.getProject(), root, crowdin, this.projectCache(),
+            Collections.<Branch, CrowdinFileTree>singletonMap(null, fileTree), true,
+            Collections.singletonMap(fileBean, Collections.singletonList(strings)), false, false);
+        fileTree.addFile(FileBuilder.standard().setProjectId(PROJECT_ID)
+            .setIdentifiers("strings.xml", "xml", 101L, fileTree.getDirectory(CrowdinPath.of("values")).getId(), null).build());
+        SourceLogic.processSources(this.getProject(), root, crowdin, this.projectCache(),
+            Collections.<Branch, CrowdinFileTree>singletonMap(null, fileTree), true,
+            Collections.singletonMap(fileBean, Collections.singletonList(strings)), false, false);
+
+        verify(crowdin, times(1)).addStorage(anyString(), any(InputStream.class));
+        verify(crowdin, times(1)).addSource(any(AddFileRequest.class));
+    }
+
+    private Crowdin crowdin() {
+        AtomicLong ids = new AtomicLong(200);
+        Crowdin crowdin = mock(Crowdin.class);
+        when(crowdin.getProjectId()).thenReturn(PROJECT_ID);
+        when(crowdin.addLabel(any(AddLabelRequest.class))).thenAnswer(invocation -> {
+            Label label = new Label();
+            label.setId(LABEL_ID);
+            label.setTitle(invocation.<AddLabelRequest>getArgument(0).getTitle());
+            return label;
+        });
+        when(crowdin.addDirectory(any(AddDirectoryRequest.class))).thenAnswer(invocation -> {
+            AddDirectoryRequest request = invocation.getArgument(0);
+            return DirectoryBuilder.standard().setProjectId(PROJECT_ID)
+                .setIdentifiers(request.getName(), ids.incrementAndGet(), request.getDirectoryId(), request.getBranchId()).build();
+        });
+        when(crowdin.addStorage(anyString(), any(InputStream.class))).thenAnswer(invocation -> ids.incrementAndGet());
+        when(crowdin.addSource(any(AddFileRequest.class))).thenAnswer(invocation -> {
+            AddFileRequest request = invocation.getArgument(0);
+            return FileBuilder.standard().setProjectId(PROJECT_ID)
+                .setIdentifiers(request.getName(), "xml", ids.incrementAndGet(), request.getDirectoryId(), request.getBranchId()).build();
+        });
+        return crowdin;
+    }
+
+    private CrowdinProjectCacheProvider.CrowdinProjectCache projectCache() {
+        CrowdinProjectCacheProvider.CrowdinProjectCache projectCache = new CrowdinProjectCacheProvider.CrowdinProjectCache();
+        projectCache.setLabels(new LabelRegistry());
+        return projectCache;
+    }
+}
@@ -0,0 +1,68 @@
+package com.crowdin.logic;
+
+import com.crowdin.util.CrowdinPath;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SourceManifestTest {
+
+    private static final String BRANCH = SourceManifest.branchKey(10L, 301L);
+    private static final CrowdinPath PATH = CrowdinPath.of("app/values/strings.xml");
+
+    @Test
+    public void testFingerprint() {
+        byte[] content = "<resources/>".getBytes(StandardCharsets.UTF_8);
+        String fingerprint = SourceManifest.fingerprint(content, "/values-%android_code%/%original_file_name%", null);
+
+        assertEquals(64, fingerprint.length());
+        assertEquals(fingerprint, SourceManifest.fingerprint(content, "/values-%android_code%/%original_file_name%", null));
+        assertNotEquals(fingerprint, SourceManifest.fingerprint(content, "/values-%locale%/%original_file_name%", null));
+        assertNotEquals(fingerprint, SourceManifest.fingerprint("<resources></resources>".getBytes(StandardCharsets.UTF_8), "/values-%android_code%/%original_file_name%", null));
+    }
+
+    @Test
+    public void testFingerprintOfContentHash() {
+        String contentHash = SourceManifest.fingerprint("<resources/>".getBytes(StandardCharsets.UTF_8));
+        String otherHash = SourceManifest.fingerprint("<resources></resources>".getBytes(StandardCharsets.UTF_8));
+        String fingerprint = SourceManifest.fingerprint(contentHash, "/values-%android_code%/%original_file_name%", null);
+
+        assertEquals(64, fingerprint.length());
+        assertEquals(fingerprint, SourceManifest.fingerprint(contentHash, "/values-%android_code%/%original_file_name%", null));
+        assertNotEquals(fingerprint, SourceManifest.fingerprint(contentHash, "/values-%locale%/%original_file_name%", null));
+        assertNotEquals(fingerprint, SourceManifest.fingerprint(otherHash, "/values-%android_code%/%original_file_name%", null));
+    }
+
+    @Test
+    public void testIsUnchanged() {
+        SourceManifest manifest = new SourceManifest();
+        manifest.record(BRANCH, PATH, "abc", 5L);
+
+        assertTrue(manifest.isUnchanged(BRANCH, PATH, "abc", 5L));
+        assertFalse(manifest.isUnchanged(BRANCH, PATH, "abc", null));
+        assertFalse(manifest.isUnchanged(BRANCH, PATH, "abc", 6L));
+        assertFalse(manifest.isUnchanged(BRANCH, PATH, "abd", 5L));
+        assertFalse(manifest.isUnchanged(SourceManifest.branchKey(10L, null), PATH, "abc", 5L));
+        assertFalse(manifest.isUnchanged(BRANCH, CrowdinPath.of("strings.xml"), "abc", 5L));
+    }
+
+    @Test
+    public void testStateRoundTrip() {
+        SourceManifest manifest = new SourceManifest();
+        manifest.record(BRANCH, PATH, "abc", 5L);
+        manifest.record(BRANCH, CrowdinPath.of("strings.xml"), "def", null);
+
+        SourceManifest loaded = new SourceManifest();
+        loaded.loadState(manifest.getState());
+
+        assertTrue(loaded.isUnchanged(BRANCH, PATH, "abc", 5L));
+        assertFalse(loaded.isUnchanged(BRANCH, PATH, "abc", 6L));
+        assertFalse(loaded.isUnchanged(BRANCH, CrowdinPath.of("strings.xml"), "def", 7L));
+        assertFalse(loaded.isUnchanged(BRANCH, CrowdinPath.of("strings.xml"), "def", null));
+    }
+}
@@ -0,0 +1,96 @@
+package com.crowdin.logic;
+
+import com.crowdin.client.Crowdin;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StorageCacheTest {
+
+    private static final byte[] CONTENT = "<resources/>".getBytes(StandardCharsets.UTF_8);
+    private static final String HASH = SourceManifest.fingerprint(CONTENT);
+
+    @Test
+    public void testReusesStorageForSameNameAndContent() {
+        Crowdin crowdin = mock(Crowdin.class);
+        when(crowdin.addStorage(eq("strings.xml"), any(InputStream.class))).thenReturn(1L);
+        StorageCache storageCache = new StorageCache(crowdin);
+
+        assertEquals(Long.valueOf(1L), storageCache.addStorage("strings.xml", CONTENT, HASH));
+        assertEquals(Long.valueOf(1L), storageCache.addStorage("strings.xml", CONTENT.clone(), HASH));
+        verify(crowdin, times(1)).addStorage(eq("strings.xml"), any(InputStream.class));
+        assertEquals(1, storageCache.getReused());
+        assertEquals(CONTENT.length, storageCache.getBytesSaved());
+    }
+
+    @Test
+    public void testUploadsSameContentWithDifferentName() {
+        Crowdin crowdin = mock(Crowdin.class);
+        when(crowdin.addStorage(eq("strings.xml"), any(InputStream.class))).thenReturn(1L);
+        when(crowdin.addStorage(eq("plurals.xml"), any(InputStream.class))).thenReturn(2L);
+        StorageCache storageCache = new StorageCache(crowdin);
+
+        assertEquals(Long.valueOf(1L), storageCache.addStorage("strings.xml", CONTENT, HASH));
+        assertEquals(Long.valueOf(2L), storageCache.addStorage("plurals.xml", CONTENT, HASH));
+        verify(crowdin, times(2)).addStorage(anyString(), any(InputStream.class));
+        assertEquals(0, storageCache.getReused());
+    }
+
+    @Test
+    public void testConcurrentCallersShareUpload() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Crowdin crowdin = mock(Crowdin.class);
+        when(crowdin.addStorage(eq("strings.xml"), any(InputStream.class))).thenAnswer(invocation -> {
+            started.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return 1L;
+        });
+        StorageCache storageCache = new StorageCache(crowdin);
+
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> storageCache.addStorage("strings.xml", CONTENT, HASH));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> storageCache.addStorage("strings.xml", CONTENT, HASH));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(Long.valueOf(1L), first.get(10, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(1L), second.get(10, TimeUnit.SECONDS));
+        verify(crowdin, times(1)).addStorage(eq("strings.xml"), any(InputStream.class));
+        assertEquals(1, storageCache.getReused());
+    }
+
+    @Test
+    public void testFailedUploadIsNotCached() {
+        Crowdin crowdin = mock(Crowdin.class);
+        when(crowdin.addStorage(eq("strings.xml"), any(InputStream.class)))
+            .thenThrow(new RuntimeException("Storage is not available"))
+            .thenReturn(2L);
+        StorageCache storageCache = new StorageCache(crowdin);
+
+        try {
+            storageCache.addStorage("strings.xml", CONTENT, HASH);
+            fail("The failure of the upload is expected");
+        } catch (RuntimeException e) {
+            assertEquals("Storage is not available", e.getMessage());
+        }
+        assertEquals(Long.valueOf(2L), storageCache.addStorage("strings.xml", CONTENT, HASH));
+        verify(crowdin, times(2)).addStorage(eq("strings.xml"), any(InputStream.class));
+        assertEquals(0, storageCache.getReused());
+    }
+}
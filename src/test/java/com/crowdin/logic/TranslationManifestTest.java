@@ -0,0 +1,77 @@
+package com.crowdin.logic;
+
+import com.crowdin.util.CrowdinPath;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TranslationManifestTest {
+
+    private static final String BRANCH = SourceManifest.branchKey(10L, 301L);
+    private static final CrowdinPath PATH = CrowdinPath.of("app/values-uk/strings.xml");
+
+    @Test
+    public void testIsUnchanged() {
+        TranslationManifest manifest = new TranslationManifest();
+        manifest.record(BRANCH, PATH, "uk", "abc");
+
+        assertTrue(manifest.isUnchanged(BRANCH, PATH, "uk", "abc"));
+        assertFalse(manifest.isUnchanged(BRANCH, PATH, "uk", "abd"));
+        assertFalse(manifest.isUnchanged(BRANCH, PATH, "de", "abc"));
+        assertFalse(manifest.isUnchanged(SourceManifest.branchKey(10L, null), PATH, "uk", "abc"));
+        assertFalse(manifest.isUnchanged(BRANCH, CrowdinPath.of("strings.xml"), "uk", "abc"));
+
+        manifest.record(BRANCH, PATH, "uk", "abd");
+        assertFalse(manifest.isUnchanged(BRANCH, PATH, "uk", "abc"));
+        assertTrue(manifest.isUnchanged(BRANCH, PATH, "uk", "abd"));
+    }
+
+    @Test
+    public void testKeyedByLanguage() {
+        TranslationManifest manifest = new TranslationManifest();
+        manifest.record(BRANCH, PATH, "uk", "abc");
+        manifest.record(BRANCH, PATH, "de", "def");
+
+        assertTrue(manifest.isUnchanged(BRANCH, PATH, "uk", "abc"));
+        assertTrue(manifest.isUnchanged(BRANCH, PATH, "de", "def"));
+        assertFalse(manifest.isUnchanged(BRANCH, PATH, "uk", "def"));
+        assertFalse(manifest.isUnchanged(BRANCH, PATH, "de", "abc"));
+    }
+
+    @Test
+    public void testStateRoundTrip() {
+        TranslationManifest manifest = new TranslationManifest();
+        manifest.record(BRANCH, PATH, "uk", "abc");
+        manifest.record(BRANCH, PATH, "de", "def");
+        manifest.record(SourceManifest.branchKey(10L, null), CrowdinPath.of("strings.xml"), "uk", "ghi");
+
+        TranslationManifest loaded = new TranslationManifest();
+        loaded.loadState(manifest.getState());
+
+        assertTrue(loaded.isUnchanged(BRANCH, PATH, "uk", "abc"));
+        assertTrue(loaded.isUnchanged(BRANCH, PATH, "de", "def"));
+        assertTrue(loaded.isUnchanged(SourceManifest.branchKey(10L, null), CrowdinPath.of("strings.xml"), "uk", "ghi"));
+        assertFalse(loaded.isUnchanged(BRANCH, CrowdinPath.of("strings.xml"), "uk", "ghi"));
+    }
+
+    @Test
+    public void testRelativePath() {
+        VirtualFile root = mock(VirtualFile.class);
+        when(root.getPath()).thenReturn("/home/user/project");
+        assertEquals(PATH, TranslationManifest.relativePath(root, new File("/home/user/project/app/values-uk/strings.xml")));
+    }
+
+    @Test
+    public void testRelativePathWithWindowsSeparators() {
+        VirtualFile root = mock(VirtualFile.class);
+        when(root.getPath()).thenReturn("C:/Users/user/project");
+        assertEquals(PATH, TranslationManifest.relativePath(root, new File("C:\\Users\\user\\project\\app\\values-uk\\strings.xml")));
+    }
+}
@@ -0,0 +1,84 @@
+package com.crowdin.logic;
+
+import com.crowdin.api.model.FileBuilder;
+import com.crowdin.client.FileBean;
+import com.crowdin.client.FileBeanBuilder;
+import com.crowdin.client.sourcefiles.model.File;
+import com.crowdin.util.CrowdinPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UploadPlanTest {
+
+    @Test
+    public void testLabelsToCreate() {
+        FileBean first = FileBeanBuilder.fileBean("/values/strings.xml", "/values-%android_code%/%original_file_name%").build();
+        first.setLabels(Arrays.asList("mobile", "android"));
+        FileBean second = FileBeanBuilder.fileBean("/values/plurals.xml", "/values-%android_code%/%original_file_name%").build();
+        second.setLabels(Arrays.asList("release", "mobile"));
+        FileBean third = FileBeanBuilder.fileBean("/values/arrays.xml", "/values-%android_code%/%original_file_name%").build();
+
+        assertEquals(Arrays.asList("android", "release"),
+            UploadPlan.labelsToCreate(Arrays.asList(first, second, third), new HashSet<>(Collections.singletonList("mobile"))));
+        assertEquals(Collections.emptyList(),
+            UploadPlan.labelsToCreate(Collections.singletonList(third), Collections.emptySet()));
+    }
+
+    @Test
+    public void testKnownLabels() {
+        FileBean first = FileBeanBuilder.fileBean("/values/strings.xml", "/values-%android_code%/%original_file_name%").build();
+        first.setLabels(Arrays.asList("mobile", "android"));
+        FileBean second = FileBeanBuilder.fileBean("/values/arrays.xml", "/values-%android_code%/%original_file_name%").build();
+        Map<String, Long> knownLabels = new HashMap<>();
+        knownLabels.put("mobile", 1L);
+        knownLabels.put("web", 2L);
+
+        assertEquals(Collections.singletonMap("mobile", 1L), UploadPlan.knownLabels(Arrays.asList(first, second), knownLabels));
+        assertEquals(Collections.emptyMap(), UploadPlan.knownLabels(Collections.singletonList(second), knownLabels));
+    }
+
+    @Test
+    public void testNeedsExcludedLanguagesPatch() {
+        File file = FileBuilder.standard().setIdentifiers("strings.xml", "android", 1L, null, null).build();
+        file.setExcludedTargetLanguages(Collections.singletonList("uk"));
+
+        assertFalse(UploadPlan.needsExcludedLanguagesPatch(null, file));
+        assertFalse(UploadPlan.needsExcludedLanguagesPatch(Collections.emptyList(), file));
+        assertFalse(UploadPlan.needsExcludedLanguagesPatch(Collections.singletonList("uk"), file));
+        assertFalse(UploadPlan.needsExcludedLanguagesPatch(Collections.singletonList("uk"), null));
+        assertTrue(UploadPlan.needsExcludedLanguagesPatch(Arrays.asList("uk", "de"), file));
+    }
+
+    @Test
+    public void testCounts() {
+        List<UploadPlan.Entry> entries = Arrays.asList(
+            this.entry("app/values/strings.xml", UploadPlan.Action.ADD, false),
+            this.entry("app/values/plurals.xml", UploadPlan.Action.ADD, false),
+            this.entry("lib/values/strings.xml", UploadPlan.Action.UPDATE, true),
+            this.entry("lib/values/arrays.xml", UploadPlan.Action.SKIP, false)
+        );
+        UploadPlan plan = new UploadPlan(entries, Collections.emptyList(),
+            Collections.singletonList(Collections.singletonList(CrowdinPath.of("app/values"))), Collections.emptyMap(), Collections.singletonList("mobile"), 3);
+
+        assertEquals(2, plan.count(UploadPlan.Action.ADD));
+        assertEquals(1, plan.count(UploadPlan.Action.UPDATE));
+        assertEquals(1, plan.count(UploadPlan.Action.SKIP));
+        assertEquals(1, plan.countExcludedLanguagesPatches());
+        assertEquals(1, plan.countDirectories());
+        assertEquals(Arrays.asList(CrowdinPath.of("app/values"), CrowdinPath.of("app/values")), UploadPlan.parentsOfAdded(entries));
+    }
+
+    private UploadPlan.Entry entry(String path, UploadPlan.Action action, boolean patchExcludedLanguages) {
+        return new UploadPlan.Entry(null, null, CrowdinPath.of(path), null, null, null, null, null, action, false, patchExcludedLanguages);
+    }
+}
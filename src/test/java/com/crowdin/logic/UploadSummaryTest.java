@@ -0,0 +1,64 @@
+package com.crowdin.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class UploadSummaryTest {
+
+    @Test
+    public void testCountsOutcomes() {
+        UploadSummary summary = new UploadSummary();
+        summary.record(UploadSummary.Outcome.ADDED, "values/strings.xml");
+        summary.record(UploadSummary.Outcome.UPDATED, "values/plurals.xml");
+        summary.record(UploadSummary.Outcome.UPDATED, "values/arrays.xml");
+        summary.record(UploadSummary.Outcome.SKIPPED, "values/colors.xml");
+        summary.recordFailure("Couldn't upload source file 'dimens.xml'");
+
+        assertEquals(1, summary.getAdded());
+        assertEquals(2, summary.getUpdated());
+        assertEquals(1, summary.getSkipped());
+        assertEquals(1, summary.getFailed());
+        assertEquals(5, summary.getTotal());
+        assertNull(summary.getSingleFile());
+    }
+
+    @Test
+    public void testCountsConcurrentOutcomes() {
+        UploadSummary summary = new UploadSummary();
+
+        CompletableFuture.allOf(IntStream.range(0, 100)
+            .mapToObj(i -> CompletableFuture.runAsync(() -> summary.record((i % 2 == 0) ? UploadSummary.Outcome.ADDED : UploadSummary.Outcome.SKIPPED, "file" + i)))
+            .toArray(CompletableFuture[]::new)).join();
+
+        assertEquals(50, summary.getAdded());
+        assertEquals(50, summary.getSkipped());
+        assertEquals(100, summary.getTotal());
+    }
+
+    @Test
+    public void testSingleFile() {
+        UploadSummary updated = new UploadSummary();
+        updated.record(UploadSummary.Outcome.UPDATED, "values/strings.xml");
+        UploadSummary failed = new UploadSummary();
+        failed.recordFailure("Couldn't upload source file 'strings.xml'");
+
+        assertEquals("values/strings.xml", updated.getSingleFile());
+        assertNull(failed.getSingleFile());
+        assertNull(new UploadSummary().getSingleFile());
+    }
+
+    @Test
+    public void testFormatFailures() {
+        UploadSummary summary = new UploadSummary();
+        for (int i = 1; i <= 7; i++) {
+            summary.recordFailure("failure " + i);
+        }
+
+        assertEquals("failure 1; failure 2; failure 3; failure 4; failure 5; and 2 more", summary.formatFailures());
+    }
+}
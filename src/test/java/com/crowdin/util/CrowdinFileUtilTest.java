@@ -33,6 +33,10 @@ public class CrowdinFileUtilTest {
         Directory dir_201L = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("values", 201L, null, 301L).build();
         File file_101L_201L = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("strings.xml", "xml", 101L, 201L, 301L).build();
         File file_102L_null = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("strings2.xml", "xml", 102L, null, 301L).build();
+        Directory dir_202L_201L = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("main", 202L, 201L, 301L).build();
+        Directory dir_203L_202L = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("res", 203L, 202L, 301L).build();
+        File file_103L_203L = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("strings.xml", "xml", 103L, 203L, 301L).build();
+        File file_104L_202L = FileBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("strings.xml", "xml", 104L, 202L, 301L).build();
         return Stream.of(
             arguments(new ArrayList<File>() {{
                     add(file_101L_201L);
@@ -42,6 +46,42 @@ public class CrowdinFileUtilTest {
                 }},  new HashMap<String, File>() {{
                     put(sep + "values" + sep + "strings.xml", file_101L_201L);
                     put(sep + "strings2.xml", file_102L_null);
+                }}),
+            arguments(new ArrayList<File>() {{
+                    add(file_103L_203L);
+                    add(file_104L_202L);
+                }},new HashMap<Long, Directory>() {{
+                    put(203L, dir_203L_202L);
+                    put(201L, dir_201L);
+                    put(202L, dir_202L_201L);
+                }},  new HashMap<String, File>() {{
+                    put(sep + "values" + sep + "main" + sep + "res" + sep + "strings.xml", file_103L_203L);
+                    put(sep + "values" + sep + "main" + sep + "strings.xml", file_104L_202L);
+                }})
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testBuildDirPaths(Map<Long, Directory> dirs, Map<String, Directory> expected) {
+        Map<String, Directory> result = CrowdinFileUtil.buildDirPaths(dirs);
+        assertEquals("dirs: " + dirs, expected, result);
+    }
+
+    public static Stream<Arguments> testBuildDirPaths() {
+        Directory dir_201L = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("values", 201L, null, 301L).build();
+        Directory dir_202L_201L = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("main", 202L, 201L, 301L).build();
+        Directory dir_203L_202L = DirectoryBuilder.standard().setProjectId(PROJECT_ID).setIdentifiers("res", 203L, 202L, 301L).build();
+        return Stream.of(
+            arguments(new HashMap<Long, Directory>(), new HashMap<String, Directory>()),
+            arguments(new HashMap<Long, Directory>() {{
+                    put(203L, dir_203L_202L);
+                    put(202L, dir_202L_201L);
+                    put(201L, dir_201L);
+                }}, new HashMap<String, Directory>() {{
+                    put(sep + "values", dir_201L);
+                    put(sep + "values" + sep + "main", dir_202L_201L);
+                    put(sep + "values" + sep + "main" + sep + "res", dir_203L_202L);
                 }})
         );
     }
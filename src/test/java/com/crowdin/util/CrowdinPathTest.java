@@ -0,0 +1,55 @@
+package com.crowdin.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+public class CrowdinPathTest {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testOf(String[] parts, String expected, List<String> expectedSegments) {
+        CrowdinPath path = CrowdinPath.of(parts);
+        assertEquals(Arrays.toString(parts), expected, path.toString());
+        assertEquals(Arrays.toString(parts), expectedSegments, path.getSegments());
+    }
+
+    public static Stream<Arguments> testOf() {
+        return Stream.of(
+            arguments(new String[] {"app/values/strings.xml"}, "/app/values/strings.xml", Arrays.asList("app", "values", "strings.xml")),
+            arguments(new String[] {"\\app\\\\values\\"}, "/app/values", Arrays.asList("app", "values")),
+            arguments(new String[] {"", "app/", "/values", "strings.xml"}, "/app/values/strings.xml", Arrays.asList("app", "values", "strings.xml")),
+            arguments(new String[] {"//"}, "/", Collections.emptyList()),
+            arguments(new String[] {}, "/", Collections.emptyList())
+        );
+    }
+
+    @Test
+    public void testEquality() {
+        CrowdinPath path = CrowdinPath.of("/app/values/strings.xml");
+        assertEquals(path, CrowdinPath.of("app\\values", "strings.xml"));
+        assertEquals(path.getParent(), CrowdinPath.of("app/values"));
+        assertEquals(path.hashCode(), CrowdinPath.of("app", "values", "strings.xml").hashCode());
+    }
+
+    @Test
+    public void testNavigation() {
+        CrowdinPath path = CrowdinPath.of("app/values/strings.xml");
+        assertEquals("strings.xml", path.getName());
+        assertEquals(CrowdinPath.of("app"), path.subpath(1));
+        assertEquals(path, CrowdinPath.of("app").resolve("values/strings.xml"));
+        assertTrue(path.subpath(0).isRoot());
+        assertNull(CrowdinPath.ROOT.getParent());
+    }
+}
@@ -0,0 +1,72 @@
+package com.crowdin.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+public class GlobMatcherTest {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testMatches(String pattern, String path, boolean expected) {
+        assertEquals("Pattern: " + pattern + ", path: " + path, expected, GlobMatcher.compile(pattern).matches(path));
+    }
+
+    public static Stream<Arguments> testMatches() {
+        return Stream.of(
+            arguments("values/strings.xml", "values/strings.xml", true),
+            arguments("values/strings.xml", "/values/strings.xml", true),
+            arguments("values/strings.xml", "values\\strings.xml", true),
+            arguments("values/strings.xml", "second/values/strings.xml", false),
+            arguments("values/*", "values/strings.xml", true),
+            arguments("values/*", "values/second/strings.xml", false),
+            arguments("values/*2.xml", "values/strings2.xml", true),
+            arguments("values/*2.xml", "values/strings.xml", false),
+            arguments("strings*.xml", "values/strings.xml", false),
+            arguments("*.xml", "stringsxml", false),
+            arguments("strings?.xml", "strings2.xml", true),
+            arguments("strings?.xml", "strings.xml", false),
+            arguments("values-??/strings.xml", "values-uk/strings.xml", true),
+            arguments("values-??/strings.xml", "values-ukr/strings.xml", false),
+            arguments("strings\\*.xml", "strings*.xml", true),
+            arguments("strings\\*.xml", "strings2.xml", false),
+            arguments("**/strings.xml", "strings.xml", true),
+            arguments("**/strings.xml", "app/src/values/strings.xml", true),
+            arguments("**/values/*.xml", "app/src/values/strings.xml", true),
+            arguments("**/values/*.xml", "app/src/values-uk/strings.xml", false),
+            arguments("app/**/values/**/*.xml", "app/values/strings.xml", true),
+            arguments("app/**/values/**/*.xml", "app/main/values/en/strings.xml", true),
+            arguments("app/**/values/**/*.xml", "lib/main/values/en/strings.xml", false),
+            arguments("*/values/*.xml", "app/values/strings.xml", true),
+            arguments("*/values/*.xml", "values/strings.xml", false),
+            arguments("values/**", "values/strings.xml", true),
+            arguments("values/**", "values/second/strings.xml", false),
+            arguments("values/", "values/strings.xml", false),
+            arguments("values/strings.xml", "", false)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testFileName(String pattern, String expectedFileName, boolean expectedDirectoryWildcards) {
+        GlobMatcher matcher = GlobMatcher.compile(pattern);
+        assertEquals(expectedFileName, matcher.getFileName());
+        assertEquals(expectedDirectoryWildcards, matcher.hasDirectoryWildcards());
+    }
+
+    public static Stream<Arguments> testFileName() {
+        return Stream.of(
+            arguments("**/values/strings.xml", "strings.xml", true),
+            arguments("values/strings.xml", "strings.xml", false),
+            arguments("values-*/strings\\*.xml", "strings*.xml", true),
+            arguments("values-??/strings.xml", "strings.xml", true),
+            arguments("values/*.xml", null, false),
+            arguments("values/**", null, false)
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package com.crowdin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        assertNull(map.put(1L, "one"));
+        assertNull(map.put(0L, "zero"));
+        assertNull(map.put(-1L, "minus one"));
+        assertEquals("one", map.put(1L, "uno"));
+
+        assertEquals(3, map.size());
+        assertEquals("uno", map.get(1L));
+        assertEquals("zero", map.get(Long.valueOf(0L)));
+        assertEquals("minus one", map.remove(-1L));
+        assertFalse(map.containsKey(-1L));
+        assertNull(map.get("1"));
+        assertEquals("none", map.getOrDefault(42L, "none"));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testSameAsHashMap() {
+        Random random = new Random(42);
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, String.valueOf(i)), map.put(key, String.valueOf(i)));
+            }
+        }
+
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 2_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void testOfKeepsInstance() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Map<Long, String> hashMap = new HashMap<>();
+        hashMap.put(7L, "seven");
+
+        assertTrue(LongObjectHashMap.of(map) == map);
+        assertEquals(hashMap, LongObjectHashMap.of(hashMap));
+    }
+}
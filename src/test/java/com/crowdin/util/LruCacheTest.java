@@ -0,0 +1,39 @@
+package com.crowdin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class LruCacheTest {
+
+    @Test
+    public void testComputesOnce() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        AtomicInteger computed = new AtomicInteger();
+
+        String first = cache.computeIfAbsent("values/*.xml", key -> key + computed.incrementAndGet());
+        String second = cache.computeIfAbsent("values/*.xml", key -> key + computed.incrementAndGet());
+
+        assertSame(first, second);
+        assertEquals(1, computed.get());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        AtomicInteger computed = new AtomicInteger();
+
+        cache.computeIfAbsent("first", key -> key + computed.incrementAndGet());
+        cache.computeIfAbsent("second", key -> key + computed.incrementAndGet());
+        cache.computeIfAbsent("first", key -> key + computed.incrementAndGet());
+        cache.computeIfAbsent("third", key -> key + computed.incrementAndGet());
+
+        assertEquals(2, cache.size());
+        assertEquals(3, computed.get());
+        assertEquals("first1", cache.computeIfAbsent("first", key -> key + computed.incrementAndGet()));
+        assertEquals("second4", cache.computeIfAbsent("second", key -> key + computed.incrementAndGet()));
+    }
+}
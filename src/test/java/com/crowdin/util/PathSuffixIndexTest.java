@@ -0,0 +1,70 @@
+package com.crowdin.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+public class PathSuffixIndexTest {
+
+    private static final List<String> PATHS = Arrays.asList(
+        "/strings.xml",
+        "/values/strings.xml",
+        "/app/values/strings.xml",
+        "/lib/values/strings.xml",
+        "/app/values/colors.xml"
+    );
+
+    @ParameterizedTest
+    @MethodSource
+    public void testFindSuffixesOf(String path, List<String> expected) {
+        PathSuffixIndex<String> index = this.index();
+        assertEquals(new HashSet<>(expected), new HashSet<>(index.findSuffixesOf(path)));
+    }
+
+    public static Stream<Arguments> testFindSuffixesOf() {
+        return Stream.of(
+            arguments("/home/user/project/app/values/colors.xml", Collections.singletonList("/app/values/colors.xml")),
+            arguments("C:\\project\\app\\values\\colors.xml", Collections.singletonList("/app/values/colors.xml")),
+            arguments("/home/user/project/app/values/strings.xml", Arrays.asList("/strings.xml", "/values/strings.xml", "/app/values/strings.xml")),
+            arguments("/home/user/project/res/strings.xml", Collections.singletonList("/strings.xml")),
+            arguments("/home/user/project/app/values/mystrings.xml", Collections.emptyList()),
+            arguments("/home/user/project/app/myvalues/colors.xml", Collections.emptyList())
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testFindEndingWith(String path, int expectedCount, List<String> expected) {
+        PathSuffixIndex<String> index = this.index();
+        assertEquals(expectedCount, index.countEndingWith(path));
+        assertEquals(new HashSet<>(expected), new HashSet<>(index.findEndingWith(path, Integer.MAX_VALUE)));
+        assertEquals(Math.min(expectedCount, 1), index.findEndingWith(path, 1).size());
+    }
+
+    public static Stream<Arguments> testFindEndingWith() {
+        return Stream.of(
+            arguments("/colors.xml", 1, Collections.singletonList("/app/values/colors.xml")),
+            arguments("/values/strings.xml", 3, Arrays.asList("/values/strings.xml", "/app/values/strings.xml", "/lib/values/strings.xml")),
+            arguments("/app/values/strings.xml", 1, Collections.singletonList("/app/values/strings.xml")),
+            arguments("/ues/strings.xml", 0, Collections.emptyList()),
+            arguments("/", 0, Collections.emptyList())
+        );
+    }
+
+    private PathSuffixIndex<String> index() {
+        PathSuffixIndex<String> index = new PathSuffixIndex<>();
+        for (String path : PATHS) {
+            index.add(path, path);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,43 @@
+package com.crowdin.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class RetryUtilTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4})
+    public void testRethrowsLastError(int retries) {
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            RetryUtil.retry(() -> {
+                throw new Exception("Attempt " + calls.incrementAndGet());
+            }, retries);
+            fail("The failure of the last attempt is expected");
+        } catch (Exception e) {
+            assertEquals("Attempt " + retries, e.getMessage());
+        }
+        assertEquals(retries, calls.get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3})
+    public void testReturnsResultOfLastAttempt(int retries) throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = RetryUtil.retry(() -> {
+            if (calls.incrementAndGet() < retries) {
+                throw new Exception("Attempt " + calls.get());
+            }
+            return "found";
+        }, retries);
+
+        assertEquals("found", result);
+        assertEquals(retries, calls.get());
+    }
+}
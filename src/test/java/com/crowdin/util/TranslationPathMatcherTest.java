@@ -0,0 +1,80 @@
+package com.crowdin.util;
+
+import com.crowdin.api.model.LanguageBuilder;
+import com.crowdin.client.languages.model.Language;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+public class TranslationPathMatcherTest {
+
+    private static final LanguagePlaceholderTable LANGUAGES = LanguagePlaceholderTable.build(
+        Arrays.asList(LanguageBuilder.ENG.build(), LanguageBuilder.UKR.build(), LanguageBuilder.DEU.build()),
+        LanguageMapping.fromServerLanguageMapping(new HashMap<>()));
+
+    @ParameterizedTest
+    @MethodSource
+    public void testMatchRenderedPaths(String pattern, String sourcePath) {
+        TranslationPatternTemplate template = TranslationPatternTemplate.parse(pattern);
+        TranslationPathMatcher matcher = TranslationPathMatcher.compile(template, LANGUAGES);
+        for (int i = 0; i < LANGUAGES.size(); i++) {
+            String translationPath = template.withFile(sourcePath).render(LANGUAGES, i);
+            TranslationPathMatcher.Match match = matcher.match(translationPath);
+            assertNotNull(String.format("pattern: %s, path: %s", pattern, translationPath), match);
+            assertEquals(String.format("pattern: %s, path: %s", pattern, translationPath), i, match.getLanguageIndex());
+            assertEquals(String.format("pattern: %s, path: %s", pattern, translationPath), matcher.fileKey(sourcePath), match.getFileKey());
+        }
+    }
+
+    public static Stream<Arguments> testMatchRenderedPaths() {
+        return Stream.of(
+            arguments("/values-%android_code%/%original_file_name%", "strings.xml"),
+            arguments("/%file_name%_%locale_with_underscore%.%file_extension%", "messages.properties"),
+            arguments("%two_letters_code%/%file_name%.%two_letters_code%.%file_extension%", "file.name.json"),
+            arguments("/%locale%/%three_letters_code%/%original_file_name%", "strings.xml"),
+            arguments("/%original_path%/%osx_code%/%file_name%.strings", "Localizable.strings"),
+            arguments("/translations/%language%.xml", "strings.xml")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testNoMatch(String pattern, String path) {
+        TranslationPathMatcher matcher = TranslationPathMatcher.compile(TranslationPatternTemplate.parse(pattern), LANGUAGES);
+        assertNull(String.format("pattern: %s, path: %s", pattern, path), matcher.match(path));
+    }
+
+    public static Stream<Arguments> testNoMatch() {
+        return Stream.of(
+            arguments("/values-%android_code%/%original_file_name%", "values/strings.xml"),
+            arguments("/values-%android_code%/%original_file_name%", "values-fr-rFR/strings.xml"),
+            arguments("/%locale%/%two_letters_code%/%original_file_name%", "en-US/uk/strings.xml"),
+            arguments("/%two_letters_code%/%original_file_name%", "uk/res/strings.xml")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testMatchLanguage(String pattern, String path, Language expected) {
+        TranslationPathMatcher.Match match = TranslationPathMatcher.compile(TranslationPatternTemplate.parse(pattern), LANGUAGES).match(path);
+        assertNotNull(String.format("pattern: %s, path: %s", pattern, path), match);
+        assertEquals(String.format("pattern: %s, path: %s", pattern, path), expected.getId(), LANGUAGES.getLanguage(match.getLanguageIndex()).getId());
+    }
+
+    public static Stream<Arguments> testMatchLanguage() {
+        return Stream.of(
+            arguments("/values-%android_code%/%original_file_name%", "/values-uk-rUA/strings.xml", LanguageBuilder.UKR.build()),
+            arguments("/%locale%/%original_file_name%", "de-DE/strings.xml", LanguageBuilder.DEU.build()),
+            arguments("/translations/%original_file_name%", "translations/strings.xml", LanguageBuilder.ENG.build())
+        );
+    }
+}
@@ -0,0 +1,72 @@
+package com.crowdin.util;
+
+import com.crowdin.api.model.LanguageBuilder;
+import com.crowdin.client.languages.model.Language;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+public class TranslationPatternTemplateTest {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testRender(String pattern, String sourcePath, Language language, LanguageMapping languageMapping, String expected) {
+        String result = TranslationPatternTemplate.parse(pattern).withFile(sourcePath).render(language, languageMapping);
+        assertEquals(String.format("pattern: %s, sourcePath: %s, language: %s", pattern, sourcePath, language), expected, result);
+    }
+
+    @ParameterizedTest
+    @MethodSource("testRender")
+    public void testRenderFromTable(String pattern, String sourcePath, Language language, LanguageMapping languageMapping, String expected) {
+        LanguagePlaceholderTable table = LanguagePlaceholderTable.build(
+            Arrays.asList(LanguageBuilder.ENG.build(), language), languageMapping);
+        String result = TranslationPatternTemplate.parse(pattern).withFile(sourcePath).render(table, table.indexOf(language));
+        assertEquals(String.format("pattern: %s, sourcePath: %s, language: %s", pattern, sourcePath, language), expected, result);
+    }
+
+    public static Stream<Arguments> testRender() {
+        LanguageMapping noMapping = LanguageMapping.fromServerLanguageMapping(new HashMap<>());
+        Map<String, Map<String, String>> serverMapping = new HashMap<>();
+        serverMapping.put("uk", Collections.singletonMap("name", "Ukrainian (Ukraine)"));
+        LanguageMapping mapping = LanguageMapping.fromServerLanguageMapping(serverMapping);
+        return Stream.of(
+            arguments("/values-%android_code%/%original_file_name%", "values/strings.xml", LanguageBuilder.UKR.build(), noMapping,
+                "/values-uk-rUA/strings.xml"),
+            arguments("/%original_path%/%file_name%_%locale_with_underscore%.%file_extension%", "/app/res/messages.properties", LanguageBuilder.DEU.build(), noMapping,
+                "/app/res/messages_de_DE.properties"),
+            arguments("/%two_letters_code%/%three_letters_code%/%osx_code%/%osx_locale%/%language_id%/%locale%", "strings.xml", LanguageBuilder.UKR.build(), noMapping,
+                "/uk/ukr/uk.lproj/uk/uk/uk-UA"),
+            arguments("/%language%/%original_file_name%", "strings.xml", LanguageBuilder.UKR.build(), mapping,
+                "/Ukrainian (Ukraine)/strings.xml"),
+            arguments("/%unknown%language%/100%/%", "strings.xml", LanguageBuilder.ENG.build(), noMapping,
+                "/%unknownEnglish/100%/%"),
+            arguments("/translations/strings.xml", "strings.xml", LanguageBuilder.ENG.build(), noMapping,
+                "/translations/strings.xml")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testPartialRender(String pattern, String expectedWithFile, String expectedWithLanguage) {
+        TranslationPatternTemplate template = TranslationPatternTemplate.parse(pattern);
+        assertEquals(pattern, template.toString());
+        assertEquals(expectedWithFile, template.renderFile("values/strings.xml"));
+        assertEquals(expectedWithLanguage, template.render(LanguageBuilder.UKR.build(), LanguageMapping.fromServerLanguageMapping(null)));
+    }
+
+    public static Stream<Arguments> testPartialRender() {
+        return Stream.of(
+            arguments("/values-%android_code%/%original_file_name%", "/values-%android_code%/strings.xml", "/values-uk-rUA/%original_file_name%"),
+            arguments("%file_name%%locale%", "strings%locale%", "%file_name%uk-UA")
+        );
+    }
+}